@@ -0,0 +1,106 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+/**
+ * DealBenchmark.java
+ * Measures how long it takes to build a deck and how much heap each retained deck costs.
+ * The "legacy" numbers reproduce the old behaviour of decoding a suit image for every card,
+ * the "shared" numbers are plain new Deck() calls backed by SuitImages.
+ *
+ * Usage: java DealBenchmark [iterations]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class DealBenchmark {
+
+  private static final String[] FILES = {"spade.png", "heart.png", "diamond.png", "club.png"};
+
+  public static void main(String[] args) throws IOException {
+    int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+
+    // warm up both paths so the JIT and the image registry are settled
+    for (int i = 0; i < iterations / 10; i++) {
+      legacyDeal();
+      new Deck();
+    }
+
+    long legacyNanos = 0, sharedNanos = 0;
+    for (int i = 0; i < iterations; i++) {
+      long start = System.nanoTime();
+      legacyDeal();
+      legacyNanos += System.nanoTime() - start;
+
+      start = System.nanoTime();
+      new Deck();
+      sharedNanos += System.nanoTime() - start;
+    }
+
+    report("legacy", legacyNanos, iterations, legacyHeapPerDeal(iterations / 10));
+    report("shared", sharedNanos, iterations, sharedHeapPerDeal(iterations / 10));
+  }
+
+  /**
+   * Prints one result line
+   */
+  private static void report(String name, long nanos, int iterations, long bytesPerDeal) {
+    System.out.printf("%-7s %10.1f us/deal %10d bytes/deal%n",
+                      name, nanos / 1000.0 / iterations, bytesPerDeal);
+  }
+
+  /**
+   * Builds a new deck and, like the old Card.initImage, decodes a suit image for every card
+   * @return the decoded images so the work cannot be optimized away
+   */
+  private static Object[] legacyDeal() throws IOException {
+    Object[] retained = new Object[2];
+    retained[0] = new Deck();
+    BufferedImage[] images = new BufferedImage[Card.SUITS.length * Card.FACES.length];
+    for (int i = 0; i < images.length; i++)
+      images[i] = ImageIO.read(new File("images", FILES[i / Card.FACES.length]));
+    retained[1] = images;
+
+    return retained;
+  }
+
+  /**
+   * @return the average number of heap bytes retained by count legacy deals
+   */
+  private static long legacyHeapPerDeal(int count) throws IOException {
+    Object[] keep = new Object[count];
+    long before = usedHeap();
+    for (int i = 0; i < count; i++)
+      keep[i] = legacyDeal();
+    long after = usedHeap();
+
+    return (after - before) / (keep.length == 0 ? 1 : keep.length);
+  }
+
+  /**
+   * @return the average number of heap bytes retained by count decks
+   */
+  private static long sharedHeapPerDeal(int count) {
+    Object[] keep = new Object[count];
+    long before = usedHeap();
+    for (int i = 0; i < count; i++)
+      keep[i] = new Deck();
+    long after = usedHeap();
+
+    return (after - before) / (keep.length == 0 ? 1 : keep.length);
+  }
+
+  /**
+   * @return the heap in use after asking for a full collection
+   */
+  private static long usedHeap() {
+    Runtime rt = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++)
+      System.gc();
+
+    return rt.totalMemory() - rt.freeMemory();
+  }
+
+}
@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * EngineBenchmark.java
+ * Measures how many moves per second the headless Engine can replay. Random games are played
+ * first (untimed) to record their moves, then the recorded games are replayed from their deals
+ * over and over, the way the batch-replay workers use the engine.
+ *
+ * Usage: java EngineBenchmark [games] [rounds]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class EngineBenchmark {
+
+  public static void main(String[] args) {
+    int games  = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+    int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+
+    Random random = new Random(42);
+    byte[][] deals = new byte[games][];
+    Move[][] moves = new Move[games][];
+    long total = 0;
+    for (int i = 0; i < games; i++) {
+      deals[i] = shuffledOrder(random);
+      moves[i] = randomGame(deals[i], random, 500);
+      total += moves[i].length;
+    }
+
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      long applied = 0;
+      for (int i = 0; i < games; i++)
+        applied += replay(deals[i], moves[i]);
+      long nanos = System.nanoTime() - start;
+      if (applied != total)
+        throw new IllegalStateException("replay diverged from the recorded games");
+      System.out.printf("round %2d: %,12.0f moves/s%n", r, applied * 1e9 / nanos);
+    }
+  }
+
+  /**
+   * Plays a game from its deal
+   * @return the number of moves played
+   */
+  static int replay(byte[] deal, Move[] moves) {
+    Engine engine = new Engine(GameState.deal(deal));
+    int played = 0;
+    for (int i = 0; i < moves.length; i++)
+      if (engine.apply(moves[i])) played++;
+
+    return played;
+  }
+
+  /**
+   * Plays random legal moves from a deal
+   * @return the moves played
+   */
+  static Move[] randomGame(byte[] deal, Random random, int maxMoves) {
+    Engine engine = new Engine(GameState.deal(deal));
+    List<Move> played = new ArrayList<Move>();
+    List<Move> legal  = new ArrayList<Move>();
+    while (played.size() < maxMoves) {
+      legal.clear();
+      for (int from = 0; from < GameState.PILES; from++)
+        for (int to = 0; to < GameState.PILES; to++)
+          for (int count = 1; count <= Move.MAX_COUNT; count++)
+            if (engine.isLegal(Move.of(from, to, count))) legal.add(Move.of(from, to, count));
+      if (engine.isLegal(Move.DRAW))    legal.add(Move.DRAW);
+      if (engine.isLegal(Move.RECYCLE)) legal.add(Move.RECYCLE);
+      if (legal.isEmpty()) break;
+
+      Move m = legal.get(random.nextInt(legal.size()));
+      engine.apply(m);
+      played.add(m);
+    }
+
+    return played.toArray(new Move[played.size()]);
+  }
+
+  /**
+   * @return the 52 card ids in a random order
+   */
+  static byte[] shuffledOrder(Random random) {
+    byte[] order = new byte[GameState.CARDS];
+    for (int i = 0; i < order.length; i++)
+      order[i] = (byte)i;
+    for (int i = order.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      byte t = order[i]; order[i] = order[j]; order[j] = t;
+    }
+
+    return order;
+  }
+
+}
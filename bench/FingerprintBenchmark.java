@@ -0,0 +1,72 @@
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * FingerprintBenchmark.java
+ * Checks Deal.fingerprint over a run of numbered deals and measures what it costs. For every
+ * deal, each of its color-preserving suit relabelings (see CardId.SYMMETRIES) must get the
+ * deal's own fingerprint, and no two deals of the run may share one. The first few deals are
+ * also solved as dealt and with both pairs of suits swapped, which must give the same result
+ * and solution length.
+ *
+ * Usage: java FingerprintBenchmark [deals] [deals to solve] [max nodes per solve]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class FingerprintBenchmark {
+
+  public static void main(String[] args) {
+    int  deals    = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+    int  solved   = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+    long maxNodes = (args.length > 2) ? Long.parseLong(args[2]) : 200000;
+
+    Set<Long> seen = new HashSet<Long>();
+    byte[] order     = new byte[GameState.CARDS];
+    byte[] relabeled = new byte[GameState.CARDS];
+    int  failures = 0;
+    long nanos    = 0;
+    for (int seed = 0; seed < deals; seed++) {
+      Deal.shuffle(seed, order);
+      long start = System.nanoTime();
+      long fp    = Deal.fingerprint(order);
+      nanos += System.nanoTime() - start;
+
+      if (!seen.add(fp)) {
+        System.out.println("deal " + seed + ": fingerprint shared with an earlier deal");
+        failures++;
+      }
+      for (int k = 1; k < CardId.SYMMETRIES; k++) {
+        relabel(order, k, relabeled);
+        if (Deal.fingerprint(relabeled) != fp) {
+          System.out.println("deal " + seed + ": relabeling " + k + " changes the fingerprint");
+          failures++;
+        }
+      }
+    }
+
+    Solver solver = new Solver(18, maxNodes, Long.MAX_VALUE);
+    for (int seed = 0; seed < solved; seed++) {
+      Deal.shuffle(seed, order);
+      relabel(order, CardId.SYMMETRIES - 1, relabeled);
+      SolverResult a = solver.solve(GameState.deal(order));
+      SolverResult b = solver.solve(GameState.deal(relabeled));
+      boolean same = a.getStatus() == b.getStatus() && a.getSolutionLength() == b.getSolutionLength();
+      System.out.println("deal " + seed + ": " + a + (same ? "" : "; relabeled: " + b));
+      if (!same)
+        failures++;
+    }
+
+    System.out.printf("%d deals, %d solved twice, %d failures; %.0f ns/fingerprint%n",
+                      deals, solved, failures, (double)nanos / deals);
+  }
+
+  /**
+   * Fills out with order relabeled by relabeling k
+   */
+  private static void relabel(byte[] order, int k, byte[] out) {
+    for (int i = 0; i < order.length; i++)
+      out[i] = (byte)CardId.relabel(k, order[i]);
+  }
+
+}
@@ -0,0 +1,96 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * GameRecordBenchmark.java
+ * Records random games (with the odd undo and redo) to a game record file, then reads them back
+ * and replays them, and reports the bytes each game took and how many games per second are
+ * written, read, and read and replayed.
+ *
+ * Usage: java GameRecordBenchmark [games] [file]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class GameRecordBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int  games = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+    Path file  = (args.length > 1) ? Paths.get(args[1])
+                                   : Files.createTempFile("games", ".solg");
+    Files.deleteIfExists(file);
+
+    Random random = new Random(1);
+    Move[] moves  = new Move[Engine.MAX_MOVES];
+    long tokens = 0, checksum = 0;
+    long start  = System.nanoTime();
+    try (GameRecordWriter out = new GameRecordWriter(file)) {
+      for (int g = 0; g < games; g++) {
+        Engine engine = new Engine(Deal.state(g));
+        MoveHistory history = new MoveHistory(engine);
+        out.beginGame(g, Engine.DRAW_COUNT);
+        for (int i = 0; i < 150; i++, tokens++) {
+          int r = random.nextInt(20);
+          if (r == 0 && history.undo()) {
+            out.undo();
+            checksum += GameRecord.UNDO;
+          } else if (r == 1 && history.redo()) {
+            out.redo();
+            checksum += GameRecord.REDO;
+          } else {
+            int n = engine.legalMoves(moves);
+            if (n == 0)
+              break;
+            Move m = moves[random.nextInt(n)];
+            history.play(m);
+            out.move(m);
+            checksum += GameRecord.token(m);
+          }
+        }
+        out.endGame();
+      }
+    }
+    long writeNanos = System.nanoTime() - start;
+    long bytes = Files.size(file);
+    System.out.printf("%,d games, %,d actions: %,d bytes, %.1f bytes/game, %.2f bytes/action%n",
+                      games, tokens, bytes, (double)bytes / games, (double)bytes / tokens);
+    System.out.printf("generate and write:  %,12.0f games/s%n", games * 1e9 / writeNanos);
+
+    for (int round = 0; round < 5; round++) {
+      start = System.nanoTime();
+      long read = 0, n = 0;
+      GameRecordReader r = GameRecordReader.open(file);
+      while (r.nextGame()) {
+        n++;
+        for (int t; (t = r.nextToken()) != GameRecord.END; )
+          read += t;
+      }
+      long readNanos = System.nanoTime() - start;
+      if (n != games || read != checksum)
+        throw new IllegalStateException("read back " + n + " games with checksum " + read + ", expected " + checksum);
+
+      start = System.nanoTime();
+      r = GameRecordReader.open(file);
+      GameState state  = new GameState();
+      Engine    engine = new Engine(state);
+      while (r.nextGame()) {
+        state.copyFrom(Deal.state(r.getSeed()));
+        MoveHistory history = new MoveHistory(engine);
+        for (int t; (t = r.nextToken()) != GameRecord.END; ) {
+          boolean ok = (t == GameRecord.UNDO) ? history.undo()
+                     : (t == GameRecord.REDO) ? history.redo() : history.play(GameRecord.move(t));
+          if (!ok)
+            throw new IllegalStateException("game " + r.getSeed() + " does not replay");
+        }
+      }
+      long replayNanos = System.nanoTime() - start;
+      System.out.printf("round %d: read %,12.0f games/s, read and replay %,10.0f games/s%n",
+                        round, games * 1e9 / readNanos, games * 1e9 / replayNanos);
+    }
+    if (args.length < 2)
+      Files.delete(file);
+  }
+
+}
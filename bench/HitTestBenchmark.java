@@ -0,0 +1,103 @@
+import java.util.Random;
+
+/**
+ * HitTestBenchmark.java
+ * Measures how many presses and drops per second can be resolved to a pile, on a position
+ * from the middle of a game: through the HitIndex, and by scanning every pile and card the way
+ * CardListener used to (without picking anything up).
+ *
+ * Usage: java HitTestBenchmark [lookups] [rounds]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class HitTestBenchmark {
+
+  public static void main(String[] args) {
+    int lookups = (args.length > 0) ? Integer.parseInt(args[0]) : 10000000;
+    int rounds  = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+    System.setProperty(GamePanel.SEED_PROPERTY, "1");
+    GamePanel panel = new GamePanel();
+    panel.setApplySnapshots(false);
+    Random random = new Random(42);
+    Move[] moves  = new Move[Engine.MAX_MOVES];
+    Engine engine = new Engine(panel.toGameState());
+    for (int i = 0; i < 40; i++) {
+      int n = engine.legalMoves(moves);
+      engine.apply(moves[random.nextInt(n)]);
+    }
+    panel.setGameState(engine.getState());
+
+    int[] xs = new int[4096], ys = new int[4096];
+    for (int i = 0; i < xs.length; i++) {
+      xs[i] = random.nextInt(700);
+      ys[i] = random.nextInt(600);
+    }
+    HitIndex index = panel.getHitIndex();
+    Card dragged   = new Card();
+    int[] targets  = new int[HitIndex.MAX_TARGETS];
+
+    for (int r = 0; r < rounds; r++) {
+      long sink = 0, start = System.nanoTime();
+      for (int i = 0; i < lookups; i++)
+        sink += index.hit(xs[i & 4095], ys[i & 4095]);
+      long indexed = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < lookups; i++)
+        sink += scan(panel, xs[i & 4095], ys[i & 4095]);
+      long scanned = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < lookups; i++) {
+        dragged.setLocation(xs[i & 4095], ys[i & 4095]);
+        sink += index.dropTargets(dragged, GameState.WASTE, targets);
+      }
+      long dropIndexed = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < lookups; i++) {
+        dragged.setLocation(xs[i & 4095], ys[i & 4095]);
+        sink += scanDrop(panel, dragged);
+      }
+      long dropScanned = System.nanoTime() - start;
+
+      System.out.printf("press: index %,13.0f/s, scan %,13.0f/s; drop: index %,13.0f/s, scan %,13.0f/s (%d)%n",
+                        lookups * 1e9 / indexed, lookups * 1e9 / scanned,
+                        lookups * 1e9 / dropIndexed, lookups * 1e9 / dropScanned, sink & 1);
+    }
+    panel.dispose();
+  }
+
+  /**
+   * Finds the pressed card by scanning every pile and card, as Pile.pileHasBeenClicked does
+   */
+  private static int scan(GamePanel panel, int x, int y) {
+    for (int pile = 0; pile < GameState.PILES; pile++) {
+      Pile p = panel.getPile(pile);
+      if (p == null || x < p.getX() || x > p.getX() + Card.WIDTH)
+        continue;
+      for (int i = 0; i < p.size(); i++) {
+        Card c = p.getCardAt(i);
+        int bottom = (i == p.size() - 1) ? c.getBottomY() : c.getY() + Pile.VERT_DISPL;
+        if (y >= c.getY() && y <= bottom && !c.faceDown)
+          return pile << 8 | i;
+      }
+    }
+
+    return HitIndex.NONE;
+  }
+
+  /**
+   * Finds the first pile the card was dropped on by testing every pile, as CardListener did
+   */
+  private static int scanDrop(GamePanel panel, Card c) {
+    for (int pile = GameState.TABLEAU; pile < GameState.FOUNDATION + GameState.FOUNDATION_PILES; pile++)
+      if (panel.getPile(pile).droppedOnPile(c))
+        return pile;
+
+    return -1;
+  }
+
+}
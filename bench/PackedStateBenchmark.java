@@ -0,0 +1,147 @@
+import java.util.Random;
+
+/**
+ * PackedStateBenchmark.java
+ * Compares replaying the same recorded games on the Swing object model (Pile, Deck and Card,
+ * moved the way CardListener used to move them, with its String and Color checks) and on the
+ * packed GameState. Also measures the two operations a search needs: copying a position and
+ * playing then undoing a move.
+ *
+ * Usage: java PackedStateBenchmark [games] [rounds]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class PackedStateBenchmark {
+
+  public static void main(String[] args) {
+    int games  = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+    int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+
+    Random random = new Random(42);
+    byte[][] deals = new byte[games][];
+    Move[][] moves = new Move[games][];
+    long total = 0;
+    for (int i = 0; i < games; i++) {
+      deals[i] = EngineBenchmark.shuffledOrder(random);
+      moves[i] = EngineBenchmark.randomGame(deals[i], random, 500);
+      total += moves[i].length;
+    }
+    GamePanel panel = new GamePanel();
+    panel.setApplySnapshots(false);
+
+    for (int r = 0; r < rounds; r++) {
+      long objectNanos = 0, packedNanos = 0, undoNanos = 0;
+      for (int i = 0; i < games; i++) {
+        panel.setGameState(GameState.deal(deals[i]));
+        long start = System.nanoTime();
+        replayObjects(panel, moves[i]);
+        objectNanos += System.nanoTime() - start;
+
+        start = System.nanoTime();
+        replayPacked(deals[i], moves[i]);
+        packedNanos += System.nanoTime() - start;
+
+        start = System.nanoTime();
+        playAndUndo(deals[i], moves[i]);
+        undoNanos += System.nanoTime() - start;
+      }
+      System.out.printf("round %2d: objects %,12.0f moves/s  packed %,12.0f moves/s  " +
+                        "packed play+undo %,12.0f pairs/s%n", r,
+                        total * 1e9 / objectNanos, total * 1e9 / packedNanos, total * 1e9 / undoNanos);
+    }
+    panel.dispose();
+
+    GameState s = GameState.deal(deals[0]), copy = new GameState();
+    int copies = 10000000;
+    long start = System.nanoTime();
+    for (int i = 0; i < copies; i++)
+      copy.copyFrom(s);
+    System.out.printf("copy of a %d-byte position: %.1f ns%n",
+                      GameState.SIZE, (System.nanoTime() - start) / (double)copies);
+  }
+
+  /**
+   * Replays moves on the packed state
+   */
+  private static void replayPacked(byte[] deal, Move[] moves) {
+    Engine engine = new Engine(GameState.deal(deal));
+    for (int i = 0; i < moves.length; i++)
+      engine.play(moves[i]);
+  }
+
+  /**
+   * Replays moves on the packed state, undoing and redoing each move before going on
+   */
+  private static void playAndUndo(byte[] deal, Move[] moves) {
+    Engine engine = new Engine(GameState.deal(deal));
+    for (int i = 0; i < moves.length; i++) {
+      engine.undo(engine.play(moves[i]));
+      engine.play(moves[i]);
+    }
+  }
+
+  /**
+   * Replays moves on the panel's piles the way CardListener did before the engine existed
+   */
+  private static void replayObjects(GamePanel panel, Move[] moves) {
+    Deck deck = panel.getDeck();
+    Pile deckPile = panel.getDeckPile();
+    for (int i = 0; i < moves.length; i++) {
+      Move m = moves[i];
+      if (m == Move.DRAW) {
+        for (int j = 0; j < 3; j++) {
+          Card c = deck.getCardOnTop();
+          if (c != null) {
+            deckPile.addToPile(c);
+            deck.removeCardOnTop();
+          }
+        }
+        deckPile.turnAllCardsUp();
+      } else if (m == Move.RECYCLE) {
+        deck.addToDeck(deckPile);
+      } else {
+        Pile from = pile(panel, m.getFrom()), to = pile(panel, m.getTo());
+        Pile p = from.getPileAt(from.size() - m.getCount());
+        if (legacyCanDrop(p, to)) {
+          if (to.getType() == Pile.MAIN_PILE)
+            to.addToPile(p);
+          else
+            to.addToPile(p.getCardOnBottom());
+          from.turnTopCardUp();
+        }
+      }
+    }
+  }
+
+  /**
+   * The checks CardListener.mouseReleased used to make
+   */
+  private static boolean legacyCanDrop(Pile p, Pile to) {
+    Card bottom = p.getCardOnBottom();
+    if (to.getType() == Pile.MAIN_PILE) {
+      if (to.isEmpty())
+        return bottom.getFace().equals("K");
+      return !bottom.getColor().equals(to.getCardOnTop().getColor()) &&
+             Card.getFaceIndex(bottom.getFace()) + 1 == Card.getFaceIndex(to.getCardOnTop().getFace());
+    }
+    if (to.isEmpty())
+      return p.size() == 1 && bottom.getFace().equals("A");
+    return p.size() == 1 &&
+           Card.getSuitIndex(bottom.getSuit()) == Card.getSuitIndex(to.getCardOnTop().getSuit()) &&
+           Card.getFaceIndex(bottom.getFace()) == Card.getFaceIndex(to.getCardOnTop().getFace()) + 1;
+  }
+
+  /**
+   * @return the panel's pile for the engine's pile number p
+   */
+  private static Pile pile(GamePanel panel, int p) {
+    if (GameState.isTableau(p))
+      return panel.getMainPiles()[p - GameState.TABLEAU];
+    if (GameState.isFoundation(p))
+      return panel.getSuitPiles()[p - GameState.FOUNDATION];
+
+    return panel.getDeckPile();
+  }
+
+}
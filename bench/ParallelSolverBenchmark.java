@@ -0,0 +1,78 @@
+import java.util.Random;
+
+/**
+ * ParallelSolverBenchmark.java
+ * Solves the same fixed set of random deals with the sequential Solver and then with a
+ * ParallelSolver on 1, 2, 4, ... threads, and reports for each the deals decided, the wall
+ * time and the speedup over the sequential solver.
+ *
+ * Usage: java ParallelSolverBenchmark [deals] [max nodes per deal] [table bits] [max threads]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class ParallelSolverBenchmark {
+
+  public static void main(String[] args) {
+    int  deals      = (args.length > 0) ? Integer.parseInt(args[0]) : 30;
+    long maxNodes   = (args.length > 1) ? Long.parseLong(args[1]) : 2000000;
+    int  tableBits  = (args.length > 2) ? Integer.parseInt(args[2]) : 22;
+    int  maxThreads = (args.length > 3) ? Integer.parseInt(args[3])
+                                        : Runtime.getRuntime().availableProcessors();
+
+    Random random = new Random(42);
+    GameState[] states = new GameState[deals];
+    for (int i = 0; i < deals; i++)
+      states[i] = GameState.deal(EngineBenchmark.shuffledOrder(random));
+
+    Solver solver = new Solver(tableBits, maxNodes, Long.MAX_VALUE);
+    int[] counts  = new int[3];
+    long nodes = 0, start = System.nanoTime();
+    for (GameState s : states) {
+      SolverResult r = solver.solve(s);
+      counts[r.getStatus()]++;
+      nodes += r.getNodes();
+    }
+    long baseline = System.nanoTime() - start;
+    report("sequential", counts, nodes, baseline, baseline);
+
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      ParallelSolver parallel = new ParallelSolver(threads, tableBits, maxNodes, Long.MAX_VALUE);
+      counts = new int[3];
+      nodes  = 0;
+      start  = System.nanoTime();
+      for (GameState s : states) {
+        SolverResult r = parallel.solve(s);
+        if (r.isSolved())
+          check(s, r.getMoves());
+        counts[r.getStatus()]++;
+        nodes += r.getNodes();
+      }
+      report(threads + " threads", counts, nodes, System.nanoTime() - start, baseline);
+      parallel.shutdown();
+    }
+  }
+
+  /**
+   * Prints one line of the report
+   */
+  private static void report(String name, int[] counts, long nodes, long nanos, long baseline) {
+    System.out.printf("%-12s solved %3d, unsolvable %3d, gave up %3d; %8.0f ms, %,12.0f nodes/s, speedup %.2f%n",
+                      name, counts[SolverResult.SOLVED], counts[SolverResult.UNSOLVABLE],
+                      counts[SolverResult.GAVE_UP], nanos / 1e6, nodes * 1e9 / nanos,
+                      (double)baseline / nanos);
+  }
+
+  /**
+   * Replays a solution and throws if it is illegal or does not win
+   */
+  private static void check(GameState start, Move[] moves) {
+    Engine engine = new Engine(start.copy());
+    for (Move m : moves)
+      if (!engine.apply(m))
+        throw new IllegalStateException("illegal move in solution: " + m);
+    if (!engine.getState().isWon())
+      throw new IllegalStateException("solution does not win");
+  }
+
+}
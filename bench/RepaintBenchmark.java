@@ -0,0 +1,105 @@
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+/**
+ * RepaintBenchmark.java
+ * Measures the frame time of dragging a card around the panel two ways: repainting the whole
+ * panel on every drag event, as the panel used to, and repainting only the union of the
+ * dragged cards' old and new bounds, as it does now. Frames are painted into an offscreen
+ * image at a high-DPI scale, so no display is needed. The heap allocated per frame is reported
+ * too, since allocation during drags turns into garbage collection pauses.
+ *
+ * Usage: java RepaintBenchmark [drag events] [scale]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class RepaintBenchmark {
+
+  private static final int SIZE = 700;
+
+  public static void main(String[] args) {
+    int    events = (args.length > 0) ? Integer.parseInt(args[0]) : 20000;
+    double scale  = (args.length > 1) ? Double.parseDouble(args[1]) : 2;
+
+    System.setProperty(GamePanel.SEED_PROPERTY, "1");
+    BufferedImage image = new BufferedImage((int)(SIZE * scale), (int)(SIZE * scale), BufferedImage.TYPE_INT_RGB);
+    for (int round = 0; round < 3; round++) {
+      System.out.println("full repaint:  " + drag(image, scale, events, false));
+      System.out.println("dirty repaint: " + drag(image, scale, events, true));
+      System.out.println("paint only:    " + paintOnly(image, scale, events));
+    }
+  }
+
+  /**
+   * Picks up the top card of the last main pile and drags it in circles, painting a frame
+   * after every drag event
+   * @param dirtyOnly whether to paint only the area the drag changed
+   * @return the frame times
+   */
+  private static FrameTimer drag(BufferedImage image, double scale, int events, boolean dirtyOnly) {
+    GamePanel panel = new GamePanel();
+    panel.setApplySnapshots(false);
+    panel.setSize(SIZE, SIZE);
+    MouseListener       press = panel.getMouseListeners()[0];
+    MouseMotionListener move  = panel.getMouseMotionListeners()[0];
+
+    Pile pile = panel.getMainPiles()[6];
+    int x = pile.getCardOnTop().getX() + 10, y = pile.getCardOnTop().getY() + 30;
+    press.mousePressed(event(panel, MouseEvent.MOUSE_PRESSED, x, y));
+    for (int i = 0; i < events; i++) {
+      int nx = x + (int)(150 * Math.cos(i / 20.0)) - 150, ny = y + (int)(150 * Math.sin(i / 20.0));
+      Rectangle before = panel.getSelectedPile().getBounds();
+      move.mouseDragged(event(panel, MouseEvent.MOUSE_DRAGGED, nx, ny));
+      Rectangle clip = dirtyOnly ? before.union(panel.getSelectedPile().getBounds()) : new Rectangle(0, 0, SIZE, SIZE);
+
+      Graphics2D g = image.createGraphics();
+      g.scale(scale, scale);
+      g.clip(clip);
+      panel.paintComponent(g);
+      g.dispose();
+    }
+    panel.dispose();
+
+    return panel.getFrameTimer();
+  }
+
+  /**
+   * Paints the whole panel over and over without moving anything
+   * @return the frame times and the heap allocated per frame
+   */
+  private static String paintOnly(BufferedImage image, double scale, int events) {
+    GamePanel panel = new GamePanel();
+    panel.setApplySnapshots(false);
+    panel.setSize(SIZE, SIZE);
+    long before = allocatedBytes();
+    for (int i = 0; i < events; i++) {
+      Graphics2D g = image.createGraphics();
+      g.scale(scale, scale);
+      panel.paintComponent(g);
+      g.dispose();
+    }
+    panel.dispose();
+    
+    return panel.getFrameTimer() + String.format(", %d bytes allocated per frame",
+                                                 (allocatedBytes() - before) / events);
+  }
+
+  /**
+   * @return the bytes of heap this thread has allocated so far
+   */
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static MouseEvent event(GamePanel panel, int id, int x, int y) {
+    return new MouseEvent(panel, id, System.currentTimeMillis(), 0, x, y, 1, false);
+  }
+
+}
@@ -0,0 +1,50 @@
+/**
+ * ShuffleBenchmark.java
+ * Measures how many numbered deals per second Deal.shuffle produces, on 1, 2, 4, ... threads
+ * at once, each thread dealing its own range of deal numbers into its own order array.
+ *
+ * Usage: java ShuffleBenchmark [deals per thread] [max threads]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class ShuffleBenchmark {
+
+  public static void main(String[] args) throws InterruptedException {
+    final int deals  = (args.length > 0) ? Integer.parseInt(args[0]) : 10000000;
+    int maxThreads   = (args.length > 1) ? Integer.parseInt(args[1])
+                                         : Runtime.getRuntime().availableProcessors();
+
+    final long[] sink = new long[1];
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      Thread[] workers = new Thread[threads];
+      final long[] checks = new long[threads];
+      for (int t = 0; t < threads; t++) {
+        final int id = t;
+        workers[t] = new Thread(new Runnable() {
+          public void run() {
+            byte[] order = new byte[GameState.CARDS];
+            long check = 0;
+            for (long seed = (long)id * deals, end = seed + deals; seed < end; seed++) {
+              Deal.shuffle(seed, order);
+              check += order[0];
+            }
+            checks[id] = check;
+          }
+        });
+      }
+
+      long start = System.nanoTime();
+      for (Thread w : workers)
+        w.start();
+      for (Thread w : workers)
+        w.join();
+      long nanos = System.nanoTime() - start;
+      for (long c : checks)
+        sink[0] += c;
+      System.out.printf("%2d threads: %,14.0f deals/s%n", threads, (double)deals * threads * 1e9 / nanos);
+    }
+    System.out.println("(checksum " + sink[0] + ")");
+  }
+
+}
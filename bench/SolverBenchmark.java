@@ -0,0 +1,67 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Random;
+
+/**
+ * SolverBenchmark.java
+ * Solves a fixed set of random deals and reports each result along with the totals: how many
+ * deals were solved, proven unsolvable or given up on, the overall nodes per second and the
+ * peak heap. The deals are solved one at a time on one thread, so the JVM's peak heap during a
+ * solve is that solve's.
+ *
+ * Usage: java SolverBenchmark [deals] [max nodes per deal] [table bits]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class SolverBenchmark {
+
+  public static void main(String[] args) {
+    int  deals     = (args.length > 0) ? Integer.parseInt(args[0]) : 50;
+    long maxNodes  = (args.length > 1) ? Long.parseLong(args[1]) : 2000000;
+    int  tableBits = (args.length > 2) ? Integer.parseInt(args[2]) : 22;
+
+    Solver solver = new Solver(tableBits, maxNodes, Long.MAX_VALUE);
+    Random random = new Random(42);
+    int[] counts  = new int[3];
+    long nodes = 0, nanos = 0, peak = 0;
+    for (int i = 0; i < deals; i++) {
+      GameState deal = GameState.deal(EngineBenchmark.shuffledOrder(random));
+      resetPeakHeap();
+      SolverResult r = solver.solve(deal);
+      long heap = peakHeap();
+      System.out.println("deal " + i + ": " + r + ", peak heap " + heap / 1024 + " KB");
+      counts[r.getStatus()]++;
+      nodes += r.getNodes();
+      nanos += r.getNanos();
+      peak   = Math.max(peak, heap);
+    }
+
+    System.out.printf("solved %d, unsolvable %d, gave up %d; %.0f nodes/s; peak heap %d KB%n",
+                      counts[SolverResult.SOLVED], counts[SolverResult.UNSOLVABLE],
+                      counts[SolverResult.GAVE_UP], nodes * 1e9 / nanos, peak / 1024);
+  }
+
+  /**
+   * Resets the JVM's peak heap usage so peakHeap reports the peak from now on
+   */
+  private static void resetPeakHeap() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+      if (pool.getType() == MemoryType.HEAP && pool.isValid())
+        pool.resetPeakUsage();
+  }
+
+  /**
+   * @return the sum of the peak usage of the JVM's heap pools since resetPeakHeap
+   */
+  private static long peakHeap() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+      if (pool.getType() == MemoryType.HEAP && pool.isValid())
+        peak += pool.getPeakUsage().getUsed();
+
+    return peak;
+  }
+
+}
@@ -0,0 +1,49 @@
+import java.util.Random;
+
+/**
+ * UndoBenchmark.java
+ * Plays random games through a MoveHistory, then measures how many moves per second it takes
+ * back and plays again, and how many bytes the history keeps per move.
+ *
+ * Usage: java UndoBenchmark [games] [rounds]
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class UndoBenchmark {
+
+  public static void main(String[] args) {
+    int games  = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+    int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 200;
+
+    Random random = new Random(1);
+    Move[] moves  = new Move[Engine.MAX_MOVES];
+    MoveHistory[] histories = new MoveHistory[games];
+    long played = 0, bytes = 0;
+    for (int g = 0; g < games; g++) {
+      Engine engine = new Engine(Deal.state(g));
+      histories[g]  = new MoveHistory(engine);
+      for (int i = 0; i < 500; i++) {
+        int n = engine.legalMoves(moves);
+        if (n == 0)
+          break;
+        histories[g].play(moves[random.nextInt(n)]);
+      }
+      played += histories[g].size();
+      bytes  += histories[g].sizeInBytes();
+    }
+    System.out.printf("%,d moves in %,d games, %.2f bytes/move%n", played, games, (double)bytes / played);
+
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      for (MoveHistory h : histories) {
+        while (h.undo()) { }
+        while (h.redo()) { }
+      }
+      long nanos = System.nanoTime() - start;
+      if (r % (rounds / 10 + 1) == 0 || r == rounds - 1)
+        System.out.printf("round %3d: %,14.0f undos+redos/s%n", r, played * 2 * 1e9 / nanos);
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+package solitaire.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DeckBenchmark.java
+ * Building a deck and dealing: new Deck() (a random deal), new Deck(seed) (a numbered deal),
+ * and Deal.shuffle, which replaced Deck.shuffleDeck, on its own.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DeckBenchmark {
+
+  private final byte[] order = new byte[52];
+  private long seed;
+
+  @Benchmark
+  public Object newDeck() throws Throwable {
+    return (Object)Game.NEW_DECK.invokeExact();
+  }
+
+  @Benchmark
+  public Object newSeededDeck() throws Throwable {
+    return (Object)Game.NEW_SEEDED_DECK.invokeExact(seed++);
+  }
+
+  @Benchmark
+  public byte[] shuffle() throws Throwable {
+    Game.SHUFFLE.invokeExact(seed++, order);
+    return order;
+  }
+
+}
@@ -0,0 +1,166 @@
+package solitaire.jmh;
+
+import java.awt.EventQueue;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Game.java
+ * Handles on the game's classes for the benchmarks. The game lives in the default package,
+ * which Java code in a named package cannot refer to, and JMH will only generate benchmarks
+ * in a named package, so the benchmarks reach the game through these method handles.
+ *
+ * The handles are static finals, so the JIT inlines an invokeExact on them just as it would a
+ * direct call. Every game type in a handle's signature (and every array of one) is erased to
+ * Object; pass the objects the handles return back into other handles.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+final class Game {
+
+  /** new Deck() */
+  static final MethodHandle NEW_DECK = constructor("Deck");
+  /** new Deck(long seed) */
+  static final MethodHandle NEW_SEEDED_DECK = constructor("Deck", long.class);
+  /** Deal.shuffle(long seed, byte[] order) */
+  static final MethodHandle SHUFFLE = method("Deal", "shuffle", true, void.class, long.class, byte[].class);
+
+  /** new GamePanel() */
+  static final MethodHandle NEW_PANEL = constructor("GamePanel");
+  /** panel.setApplySnapshots(boolean on) */
+  static final MethodHandle SET_APPLY_SNAPSHOTS = method("GamePanel", "setApplySnapshots", false, void.class, boolean.class);
+  /** panel.sync() */
+  static final MethodHandle SYNC = method("GamePanel", "sync", false, void.class);
+  /** panel.dispose() */
+  static final MethodHandle DISPOSE = method("GamePanel", "dispose", false, void.class);
+  /** panel.setInitialLayout(Deck d) */
+  static final MethodHandle SET_INITIAL_LAYOUT = method("GamePanel", "setInitialLayout", false, void.class, type("Deck"));
+  /** panel.getMainPiles() */
+  static final MethodHandle GET_MAIN_PILES = method("GamePanel", "getMainPiles", false, arrayType("Pile"));
+  /** panel.toGameState() */
+  static final MethodHandle TO_GAME_STATE = method("GamePanel", "toGameState", false, type("GameState"));
+  /** panel.getHitIndex() */
+  static final MethodHandle GET_HIT_INDEX = method("GamePanel", "getHitIndex", false, type("HitIndex"));
+
+  /** new Pile(int x, int y, int type) */
+  static final MethodHandle NEW_PILE = constructor("Pile", int.class, int.class, int.class);
+  /** pile.addToPile(Card c) */
+  static final MethodHandle ADD_TO_PILE = method("Pile", "addToPile", false, void.class, type("Card"));
+  /** pile.addToPile(Pile p) */
+  static final MethodHandle ADD_PILE_TO_PILE = method("Pile", "addToPile", false, void.class, type("Pile"));
+  /** pile.getPileAt(int i) */
+  static final MethodHandle GET_PILE_AT = method("Pile", "getPileAt", false, type("Pile"), int.class);
+  /** pile.pileHasBeenClicked(MouseEvent e) */
+  static final MethodHandle PILE_HAS_BEEN_CLICKED =
+      method("Pile", "pileHasBeenClicked", false, type("Pile"), java.awt.event.MouseEvent.class);
+  /** pile.getCardAt(int i) */
+  static final MethodHandle GET_CARD_AT = method("Pile", "getCardAt", false, type("Card"), int.class);
+  /** pile.size() */
+  static final MethodHandle PILE_SIZE = method("Pile", "size", false, int.class);
+  /** pile.clear() */
+  static final MethodHandle CLEAR_PILE = method("Pile", "clear", false, void.class);
+  /** deck.getCardAt(int i) */
+  static final MethodHandle DECK_CARD_AT = method("Deck", "getCardAt", false, type("Card"), int.class);
+  /** card.setLocation(int x, int y) */
+  static final MethodHandle SET_CARD_LOCATION = method("Card", "setLocation", false, void.class, int.class, int.class);
+  /** card.getX() */
+  static final MethodHandle CARD_X = method("Card", "getX", false, int.class);
+  /** card.getY() */
+  static final MethodHandle CARD_Y = method("Card", "getY", false, int.class);
+  /** card.faceDown = faceDown */
+  static final MethodHandle SET_FACE_DOWN = setter("Card", "faceDown", boolean.class);
+
+  /** hitIndex.hit(int x, int y) */
+  static final MethodHandle HIT = method("HitIndex", "hit", false, int.class, int.class, int.class);
+  /** hitIndex.dropTargets(Card c, int from, int[] out) */
+  static final MethodHandle DROP_TARGETS =
+      method("HitIndex", "dropTargets", false, int.class, type("Card"), int.class, int[].class);
+  /** Move.of(int from, int to, int count) */
+  static final MethodHandle MOVE_OF = method("Move", "of", true, type("Move"), int.class, int.class, int.class);
+  /** new Engine(GameState s) */
+  static final MethodHandle NEW_ENGINE = constructor("Engine", type("GameState"));
+  /** engine.isLegal(Move m) */
+  static final MethodHandle IS_LEGAL = method("Engine", "isLegal", false, boolean.class, type("Move"));
+
+  private Game() {
+  }
+
+  /**
+   * Makes a GamePanel that only changes on the calling thread: it stops applying the game
+   * loop's snapshots on the event dispatch thread, waits out one being applied already, and
+   * shows the loop's latest position itself
+   * @return the panel; dispose of it when done
+   */
+  static Object newPanel() throws Throwable {
+    Object panel = (Object)NEW_PANEL.invokeExact();
+    SET_APPLY_SNAPSHOTS.invokeExact(panel, false);
+    EventQueue.invokeAndWait(new Runnable() {
+      public void run() {
+      }
+    });
+    SYNC.invokeExact(panel);
+    return panel;
+  }
+
+  static Class<?> type(String name) {
+    try {
+      return Class.forName(name);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("the game is not on the classpath", e);
+    }
+  }
+
+  private static Class<?> arrayType(String name) {
+    return java.lang.reflect.Array.newInstance(type(name), 0).getClass();
+  }
+
+  /**
+   * @return t with every game type changed to Object
+   */
+  private static MethodType erase(MethodType t) {
+    if (isGameType(t.returnType()))
+      t = t.changeReturnType(Object.class);
+    for (int i = 0; i < t.parameterCount(); i++)
+      if (isGameType(t.parameterType(i)))
+        t = t.changeParameterType(i, Object.class);
+    return t;
+  }
+
+  private static boolean isGameType(Class<?> c) {
+    if (c.isArray())
+      return isGameType(c.getComponentType());
+    return !c.isPrimitive() && c.getName().indexOf('.') < 0;
+  }
+
+  private static MethodHandle constructor(String cls, Class<?>... params) {
+    try {
+      MethodHandle h = MethodHandles.publicLookup().findConstructor(type(cls), MethodType.methodType(void.class, params));
+      return h.asType(erase(h.type()));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static MethodHandle method(String cls, String name, boolean isStatic, Class<?> ret, Class<?>... params) {
+    try {
+      MethodType t = MethodType.methodType(ret, params);
+      MethodHandle h = isStatic ? MethodHandles.publicLookup().findStatic(type(cls), name, t)
+                                : MethodHandles.publicLookup().findVirtual(type(cls), name, t);
+      return h.asType(erase(h.type()));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static MethodHandle setter(String cls, String name, Class<?> type) {
+    try {
+      MethodHandle h = MethodHandles.publicLookup().findSetter(type(cls), name, type);
+      return h.asType(erase(h.type()));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+package solitaire.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * InputBenchmark.java
+ * What CardListener does with the mouse, without the painting: finding the card under a
+ * press with the panel's HitIndex, and validating a drop the way mouseReleased does (the piles
+ * the card overlaps, largest overlap first, each checked with Engine.isLegal until one takes
+ * it). A drop is timed both where a pile takes the card and where none does. The drops are
+ * only validated, never played, so every call sees the same position.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dsolitaire.seed=2"})
+public class InputBenchmark {
+
+  /**
+   * In deal 2 the top card of main pile 3 goes on main pile 2, and the top card of main pile 6
+   * does not go on main pile 0
+   */
+  private static final int LEGAL_FROM = 3, LEGAL_TO = 2, ILLEGAL_FROM = 6, ILLEGAL_TO = 0;
+
+  private final int[] targets = new int[4];
+  private Object panel, engine, hitIndex, legalCard, illegalCard;
+  private int    pressX, pressY;
+
+  @Setup
+  public void setUp() throws Throwable {
+    panel    = Game.newPanel();
+    engine   = (Object)Game.NEW_ENGINE.invokeExact((Object)Game.TO_GAME_STATE.invokeExact(panel));
+    hitIndex = (Object)Game.GET_HIT_INDEX.invokeExact(panel);
+
+    Object[] piles = (Object[])(Object)Game.GET_MAIN_PILES.invokeExact(panel);
+    Object top = topCard(piles[ILLEGAL_FROM]);
+    pressX = (int)Game.CARD_X.invokeExact(top) + 10;
+    pressY = (int)Game.CARD_Y.invokeExact(top) + 10;
+    legalCard   = dragOnto(piles[LEGAL_FROM], piles[LEGAL_TO]);
+    illegalCard = dragOnto(piles[ILLEGAL_FROM], piles[ILLEGAL_TO]);
+    if (!validate(legalCard, LEGAL_FROM) || validate(illegalCard, ILLEGAL_FROM))
+      throw new IllegalStateException("deal 2 does not have the drops this benchmark times");
+  }
+
+  @TearDown
+  public void tearDown() throws Throwable {
+    Game.DISPOSE.invokeExact(panel);
+  }
+
+  @Benchmark
+  public int hit() throws Throwable {
+    return (int)Game.HIT.invokeExact(hitIndex, pressX, pressY);
+  }
+
+  @Benchmark
+  public boolean validateLegalDrop() throws Throwable {
+    return validate(legalCard, LEGAL_FROM);
+  }
+
+  @Benchmark
+  public boolean validateIllegalDrop() throws Throwable {
+    return validate(illegalCard, ILLEGAL_FROM);
+  }
+
+  /**
+   * @return whether a pile the card dragged from main pile from overlaps takes it
+   */
+  private boolean validate(Object card, int from) throws Throwable {
+    int n = (int)Game.DROP_TARGETS.invokeExact(hitIndex, card, from, targets);
+    boolean legal = false;
+    for (int i = 0; i < n && !legal; i++)
+      legal = (boolean)Game.IS_LEGAL.invokeExact(engine, (Object)Game.MOVE_OF.invokeExact(from, targets[i], 1));
+    return legal;
+  }
+
+  /**
+   * Moves the top card of pile from over the top card of pile to, as a drag would
+   * @return the card
+   */
+  private static Object dragOnto(Object from, Object to) throws Throwable {
+    Object card = topCard(from), under = topCard(to);
+    Game.SET_CARD_LOCATION.invokeExact(card, (int)Game.CARD_X.invokeExact(under) + 10,
+                                       (int)Game.CARD_Y.invokeExact(under) + 15);
+    return card;
+  }
+
+  private static Object topCard(Object pile) throws Throwable {
+    return (Object)Game.GET_CARD_AT.invokeExact(pile, (int)Game.PILE_SIZE.invokeExact(pile) - 1);
+  }
+
+}
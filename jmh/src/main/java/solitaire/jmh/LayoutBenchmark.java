@@ -0,0 +1,54 @@
+package solitaire.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * LayoutBenchmark.java
+ * GamePanel.setInitialLayout: dealing a deck onto a new engine and building the piles and the
+ * hit index for it. The deck passed in is only read, so the same one is dealt every time. The
+ * panel does not apply the game loop's snapshots (see Game.newPanel), so only the benchmark
+ * thread touches its piles.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LayoutBenchmark {
+
+  private Object panel, deck;
+
+  @Setup
+  public void setUp() throws Throwable {
+    panel = Game.newPanel();
+    deck  = (Object)Game.NEW_SEEDED_DECK.invokeExact(1L);
+  }
+
+  @TearDown
+  public void tearDown() throws Throwable {
+    Game.DISPOSE.invokeExact(panel);
+  }
+
+  @Benchmark
+  public Object setInitialLayout() throws Throwable {
+    Game.SET_INITIAL_LAYOUT.invokeExact(panel, deck);
+    return panel;
+  }
+
+}
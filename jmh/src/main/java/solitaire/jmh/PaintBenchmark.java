@@ -0,0 +1,71 @@
+package solitaire.jmh;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PaintBenchmark.java
+ * GamePanel.paintComponent painting a whole 700 by 700 frame into an offscreen image, and
+ * painting only the area of one dragged card, as a dirty-region repaint does.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dsolitaire.seed=1"})
+public class PaintBenchmark {
+
+  private static final int SIZE = 700;
+
+  private JPanel     panel;
+  private Graphics2D full, clipped;
+
+  @Setup
+  public void setUp() throws Throwable {
+    panel = (JPanel)Game.newPanel();
+    panel.setSize(SIZE, SIZE);
+    BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+    full    = image.createGraphics();
+    clipped = image.createGraphics();
+    clipped.setClip(200, 300, 61 + 10, 101 + 10);
+  }
+
+  @TearDown
+  public void tearDown() throws Throwable {
+    full.dispose();
+    clipped.dispose();
+    Game.DISPOSE.invokeExact((Object)panel);
+  }
+
+  @Benchmark
+  public JPanel fullFrame() {
+    panel.paint(full);
+    return panel;
+  }
+
+  @Benchmark
+  public JPanel dirtyRegion() {
+    panel.paint(clipped);
+    return panel;
+  }
+
+}
@@ -0,0 +1,78 @@
+package solitaire.jmh;
+
+import java.awt.event.MouseEvent;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PileBenchmark.java
+ * The Pile operations a drag is made of: building a pile of 13 face-up cards with addToPile and
+ * splitting it with getPileAt, and finding the cards under a press with pileHasBeenClicked
+ * (which takes them off the pile, so they are put back after each press).
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PileBenchmark {
+
+  private static final int CARDS = 13, X = 35, Y = 150, MAIN_PILE = 1;
+
+  private final Object[] cards = new Object[CARDS];
+  private Object     building, clicked;
+  private MouseEvent press;
+
+  @Setup
+  public void setUp() throws Throwable {
+    Object deck = (Object)Game.NEW_SEEDED_DECK.invokeExact(1L);
+    for (int i = 0; i < CARDS; i++) {
+      cards[i] = (Object)Game.DECK_CARD_AT.invokeExact(deck, i);
+      Game.SET_FACE_DOWN.invokeExact(cards[i], false);
+    }
+    building = (Object)Game.NEW_PILE.invokeExact(X, Y, MAIN_PILE);
+
+    // a separate deck, so building the other pile does not move these cards
+    deck    = (Object)Game.NEW_SEEDED_DECK.invokeExact(1L);
+    clicked = (Object)Game.NEW_PILE.invokeExact(X, Y, MAIN_PILE);
+    for (int i = 0; i < CARDS; i++) {
+      Object c = (Object)Game.DECK_CARD_AT.invokeExact(deck, i);
+      Game.SET_FACE_DOWN.invokeExact(c, false);
+      Game.ADD_TO_PILE.invokeExact(clicked, c);
+    }
+    // press the middle of the seventh card's strip
+    press = new MouseEvent(new JPanel(), MouseEvent.MOUSE_PRESSED, 0, 0, X + 30, Y + 6 * 22 + 10, 1, false);
+  }
+
+  @Benchmark
+  public Object addToPileAndGetPileAt() throws Throwable {
+    Game.CLEAR_PILE.invokeExact(building);
+    for (Object c : cards)
+      Game.ADD_TO_PILE.invokeExact(building, c);
+    return (Object)Game.GET_PILE_AT.invokeExact(building, CARDS / 2);
+  }
+
+  @Benchmark
+  public Object pileHasBeenClicked() throws Throwable {
+    Object taken = (Object)Game.PILE_HAS_BEEN_CLICKED.invokeExact(clicked, press);
+    Game.ADD_PILE_TO_PILE.invokeExact(clicked, taken);
+    return taken;
+  }
+
+}
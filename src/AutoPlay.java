@@ -0,0 +1,105 @@
+/**
+ * AutoPlay.java
+ * Moves cards from the main piles to the suit piles for the player when it can never hurt. A
+ * card is safe to move up when it is an ace or a two, or when both cards of the opposite
+ * colour one face lower are already on the suit piles (so no card that could still need it to
+ * build on is left). Once no card is face down and the stock and waste are empty the game is
+ * won, and every card is moved up.
+ *
+ * Detection is incremental: after a move only the top cards of the piles it changed are
+ * looked at, unless a suit pile grew, which can make a card safe anywhere; and every move
+ * played makes one more pass over just the tops of the seven main piles. The whole cascade
+ * is played before the game loop publishes, so it reaches the screen as one update and one
+ * repaint.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class AutoPlay {
+
+  /**
+   * Bit masks of the piles cards are moved up from (only the main piles: taking a card off the
+   * waste changes which cards every later draw of three turns up, which can lose a won game),
+   * and of the suit piles
+   */
+  private static final int SOURCES     = ((1 << GameState.TABLEAU_PILES) - 1) << GameState.TABLEAU;
+  private static final int FOUNDATIONS = ((1 << GameState.FOUNDATION_PILES) - 1) << GameState.FOUNDATION;
+
+  private AutoPlay() {
+  }
+
+  /**
+   * Plays every safe move to the suit piles, and every move the new ones make safe
+   * @param history where to play the moves, so they can be undone and are recorded
+   * @param s the position history plays on
+   * @param changed a bit mask of the piles the last move changed: bit p for pile p
+   * @return a bit mask of the piles the moves played changed
+   */
+  public static int play(MoveHistory history, GameState s, int changed) {
+    int candidates = ((changed & FOUNDATIONS) != 0) ? SOURCES : changed & SOURCES;
+    int played     = 0;
+    boolean won    = isDecided(s);
+    while (candidates != 0) {
+      int p = Integer.numberOfTrailingZeros(candidates);
+      candidates &= candidates - 1;
+
+      int c = s.topCard(p);
+      if (c < 0 || !(won || isSafe(s, c)))
+        continue;
+      int f = foundationFor(s, c);
+      if (f < 0 || !history.play(Move.of(p, f, 1)))
+        continue;
+
+      played    |= 1 << p | 1 << f;
+      candidates = SOURCES;
+      won        = won || isDecided(s);
+    }
+
+    return played;
+  }
+
+  /**
+   * @return whether card c, the top card of some pile of s, is safe to move to a suit pile
+   */
+  public static boolean isSafe(GameState s, int c) {
+    int face = CardId.face(c);
+    if (face <= 1)
+      return true;
+
+    // each suit pile holds one suit, so this counts the two opposite-colour suits built that high
+    int up = 0;
+    for (int f = GameState.FOUNDATION; f < GameState.FOUNDATION + GameState.FOUNDATION_PILES; f++) {
+      int top = s.topCard(f);
+      if (top >= 0 && CardId.color(top) != CardId.color(c) && CardId.face(top) >= face - 1)
+        up++;
+    }
+
+    return up == 2;
+  }
+
+  /**
+   * @return whether no card of s is face down and the stock and waste are empty, so every card
+   *         can be moved up in order
+   */
+  public static boolean isDecided(GameState s) {
+    if (!s.isEmpty(GameState.STOCK) || !s.isEmpty(GameState.WASTE))
+      return false;
+    for (int p = GameState.TABLEAU; p < GameState.TABLEAU + GameState.TABLEAU_PILES; p++)
+      if (s.faceDownCount(p) > 0)
+        return false;
+
+    return true;
+  }
+
+  /**
+   * @return the suit pile card c may be moved to, or -1
+   */
+  private static int foundationFor(GameState s, int c) {
+    for (int f = GameState.FOUNDATION; f < GameState.FOUNDATION + GameState.FOUNDATION_PILES; f++)
+      if (CardId.canStackOnFoundation(c, s.topCard(f)))
+        return f;
+
+    return -1;
+  }
+
+}
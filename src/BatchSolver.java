@@ -0,0 +1,336 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * BatchSolver.java
+ * Solves a range of numbered deals (see Deal) without the UI and writes one fixed-size binary
+ * record per deal: the seed, the solver's status, a difficulty score, the solution length, the
+ * nodes searched and the time taken.
+ *
+ * The seeds are handed out in chunks to one worker thread per core, each with its own Solver.
+ * A bounded window of chunks is in flight at a time, so workers wait when the writer falls
+ * behind instead of piling up results. The writer puts the chunks back in seed order, forces
+ * each one to disk and then records how far it got in a checkpoint file next to the output.
+ * Running the same command again after a crash truncates the output to the checkpoint and
+ * carries on from there.
+ *
+ * File layout (big-endian): a HEADER_SIZE byte header (MAGIC, VERSION, RECORD_SIZE, the first
+ * seed, the number of seeds, the node limit), then RECORD_SIZE byte records of seed (8),
+ * status (1), difficulty (1), solution length (2), nodes (8) and microseconds (4).
+ *
+ * Usage: java Handler batch first-seed count output-file [threads] [max nodes] [table bits]
+ *        java Handler batch-print output-file
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class BatchSolver {
+
+  public static final int MAGIC       = 0x534F4C42; // "SOLB"
+  public static final int VERSION     = 1;
+  public static final int HEADER_SIZE = 32;
+  public static final int RECORD_SIZE = 24;
+
+  /**
+   * The number of seeds handed to a worker at a time
+   */
+  public static final int CHUNK = 256;
+
+  private final long firstSeed;
+  private final long count;
+  private final int  threads;
+  private final long maxNodes;
+  private final int  tableBits;
+  private final Path output;
+  private final Path checkpoint;
+
+  /**
+   * Constructs a batch
+   * @param firstSeed the first deal number to solve
+   * @param count the number of deals to solve
+   * @param output the file to write the records to
+   * @param threads the number of worker threads
+   * @param maxNodes the most positions to search per deal before giving up
+   * @param tableBits the log2 of the number of transposition table entries per worker
+   */
+  public BatchSolver(long firstSeed, long count, Path output, int threads, long maxNodes, int tableBits) {
+    if (count < 0 || threads < 1)
+      throw new IllegalArgumentException("count must not be negative and threads must be positive");
+
+    this.firstSeed = firstSeed;
+    this.count     = count;
+    this.output    = output;
+    this.threads   = threads;
+    this.maxNodes  = maxNodes;
+    this.tableBits = tableBits;
+    checkpoint     = Paths.get(output.toString() + ".checkpoint");
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (args.length == 2 && args[0].equals("print")) {
+      print(Paths.get(args[1]), System.out);
+      return;
+    }
+    if (args.length < 3) {
+      System.err.println("usage: batch first-seed count output-file [threads] [max nodes] [table bits]");
+      System.err.println("       batch-print output-file");
+      return;
+    }
+
+    int  threads   = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+    long maxNodes  = (args.length > 4) ? Long.parseLong(args[4]) : 2000000;
+    int  tableBits = (args.length > 5) ? Integer.parseInt(args[5]) : 20;
+    new BatchSolver(Long.parseLong(args[0]), Long.parseLong(args[1]), Paths.get(args[2]),
+                    threads, maxNodes, tableBits).run(System.err);
+  }
+
+  /**
+   * Solves every deal of the batch not yet in the output, resuming from the checkpoint if
+   * there is one
+   * @param log where to report progress
+   * @throws IOException if the output or checkpoint cannot be read or written
+   * @throws IllegalStateException if the checkpoint belongs to a different batch, or a worker
+   *         failed
+   */
+  public void run(PrintStream log) throws IOException, InterruptedException {
+    try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                                            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long nextSeed, length;
+      if (Files.exists(checkpoint)) {
+        Properties p = readCheckpoint();
+        nextSeed = Long.parseLong(p.getProperty("nextSeed"));
+        length   = Long.parseLong(p.getProperty("length"));
+        if (out.size() < length)
+          throw new IllegalStateException(output + " is shorter than its checkpoint says");
+        out.truncate(length);
+        log.printf("resuming at seed %d%n", nextSeed);
+      } else {
+        out.truncate(0);
+        writeFully(out, header(), 0);
+        out.force(true);
+        nextSeed = firstSeed;
+        length   = HEADER_SIZE;
+        writeCheckpoint(nextSeed, length);
+      }
+
+      solve(out, nextSeed, length, log);
+    }
+  }
+
+  /**
+   * Runs the workers over the seeds from nextSeed to the end of the batch, appending their
+   * records at length in seed order
+   */
+  private void solve(FileChannel out, long nextSeed, long length, PrintStream log)
+      throws IOException, InterruptedException {
+    long end    = firstSeed + count;
+    int  window = threads * 4;
+    BlockingQueue<Chunk> work = new ArrayBlockingQueue<Chunk>(window + threads);
+    BlockingQueue<Chunk> done = new ArrayBlockingQueue<Chunk>(window);
+    Thread[] workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Thread(new Worker(work, done), "batch-solver-" + i);
+      workers[i].setDaemon(true);
+      workers[i].start();
+    }
+
+    Chunk[] pending = new Chunk[window];
+    int[]   counts  = new int[3];
+    long issued = 0, written = 0, start = System.nanoTime(), solved = 0;
+    long issueSeed = nextSeed;
+    try {
+      while (issueSeed < end || written < issued) {
+        // hand out chunks until the window is full
+        while (issueSeed < end && issued - written < window) {
+          int n = (int)Math.min(CHUNK, end - issueSeed);
+          work.put(new Chunk(issued++, issueSeed, n));
+          issueSeed += n;
+        }
+
+        Chunk c = done.take();
+        if (c.error != null)
+          throw new IllegalStateException("worker failed on seeds from " + c.firstSeed, c.error);
+        pending[(int)(c.seq % window)] = c;
+
+        // write every chunk that is next in seed order
+        for (Chunk next; (next = pending[(int)(written % window)]) != null && next.seq == written; written++) {
+          pending[(int)(written % window)] = null;
+          next.records.flip();
+          length += writeFully(out, next.records, length);
+          out.force(false);
+          writeCheckpoint(next.firstSeed + next.count, length);
+
+          for (int i = 0; i < next.count; i++)
+            counts[next.records.get(i * RECORD_SIZE + 8)]++;
+          solved += next.count;
+          log.printf("seeds %d to %d: solved %d, unsolvable %d, gave up %d; %.1f deals/s%n",
+                     nextSeed, next.firstSeed + next.count - 1, counts[SolverResult.SOLVED],
+                     counts[SolverResult.UNSOLVABLE], counts[SolverResult.GAVE_UP],
+                     solved * 1e9 / (System.nanoTime() - start));
+        }
+      }
+    } finally {
+      for (int i = 0; i < threads; i++)
+        work.offer(Chunk.STOP);
+    }
+  }
+
+  /**
+   * @return the file header of this batch
+   */
+  private ByteBuffer header() {
+    ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE);
+    b.putInt(MAGIC).putShort((short)VERSION).putShort((short)RECORD_SIZE);
+    b.putLong(firstSeed).putLong(count).putLong(maxNodes);
+    b.flip();
+    return b;
+  }
+
+  /**
+   * Reads the checkpoint and checks it belongs to this batch
+   */
+  private Properties readCheckpoint() throws IOException {
+    Properties p = new Properties();
+    try (InputStream in = Files.newInputStream(checkpoint)) {
+      p.load(in);
+    }
+    if (!p.getProperty("firstSeed", "").equals(Long.toString(firstSeed)) ||
+        !p.getProperty("count", "").equals(Long.toString(count)) ||
+        !p.getProperty("maxNodes", "").equals(Long.toString(maxNodes)))
+      throw new IllegalStateException(checkpoint + " belongs to a different batch; delete it to start over");
+
+    return p;
+  }
+
+  /**
+   * Replaces the checkpoint, atomically, with one saying the output is complete up to length
+   * bytes and the next seed to solve is nextSeed
+   */
+  private void writeCheckpoint(long nextSeed, long length) throws IOException {
+    Properties p = new Properties();
+    p.setProperty("firstSeed", Long.toString(firstSeed));
+    p.setProperty("count",     Long.toString(count));
+    p.setProperty("maxNodes",  Long.toString(maxNodes));
+    p.setProperty("nextSeed",  Long.toString(nextSeed));
+    p.setProperty("length",    Long.toString(length));
+
+    Path temp = Paths.get(checkpoint.toString() + ".tmp");
+    try (OutputStream out = Files.newOutputStream(temp)) {
+      p.store(out, null);
+    }
+    Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Writes all of b at position in out
+   * @return the number of bytes written
+   */
+  private static int writeFully(FileChannel out, ByteBuffer b, long position) throws IOException {
+    int n = b.remaining();
+    while (b.hasRemaining())
+      position += out.write(b, position);
+
+    return n;
+  }
+
+  /**
+   * @return the difficulty score of a result: the bit length of the nodes searched, a log2
+   *         scale of how much work it took to decide the deal
+   */
+  static int difficulty(SolverResult r) {
+    return 64 - Long.numberOfLeadingZeros(r.getNodes());
+  }
+
+  /**
+   * Prints the records of a batch output file as text, one line per deal
+   * @param file the output file
+   * @param out where to print
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if it is not a batch output file
+   */
+  public static void print(Path file, PrintStream out) throws IOException {
+    ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(file));
+    if (b.remaining() < HEADER_SIZE || b.getInt() != MAGIC || b.getShort() != VERSION ||
+        b.getShort() != RECORD_SIZE)
+      throw new IllegalArgumentException(file + " is not a batch output file");
+
+    String[] names = {"solved", "unsolvable", "gave up"};
+    b.position(HEADER_SIZE);
+    out.println("seed\tstatus\tdifficulty\tmoves\tnodes\tmicros");
+    while (b.remaining() >= RECORD_SIZE)
+      out.printf("%d\t%s\t%d\t%d\t%d\t%d%n", b.getLong(), names[b.get()], b.get(), b.getShort(),
+                 b.getLong(), b.getInt());
+  }
+
+  /**
+   * A run of consecutive seeds and, once solved, their records
+   */
+  private static class Chunk {
+
+    static final Chunk STOP = new Chunk(-1, 0, 0);
+
+    final long       seq;
+    final long       firstSeed;
+    final int        count;
+    final ByteBuffer records;
+    Throwable        error;
+
+    Chunk(long seq, long firstSeed, int count) {
+      this.seq       = seq;
+      this.firstSeed = firstSeed;
+      this.count     = count;
+      records        = ByteBuffer.allocate(count * RECORD_SIZE);
+    }
+
+  }
+
+  /**
+   * Solves chunks from one queue and passes them on to another until it takes Chunk.STOP
+   */
+  private class Worker implements Runnable {
+
+    private final BlockingQueue<Chunk> work, done;
+
+    Worker(BlockingQueue<Chunk> work, BlockingQueue<Chunk> done) {
+      this.work = work;
+      this.done = done;
+    }
+
+    public void run() {
+      Solver solver = new Solver(tableBits, maxNodes, Long.MAX_VALUE);
+      byte[] order  = new byte[GameState.CARDS];
+      try {
+        for (Chunk c; (c = work.take()) != Chunk.STOP; done.put(c)) {
+          try {
+            for (int i = 0; i < c.count; i++) {
+              long seed = c.firstSeed + i;
+              Deal.shuffle(seed, order);
+              SolverResult r = solver.solve(GameState.deal(order));
+              c.records.putLong(seed).put((byte)r.getStatus()).put((byte)difficulty(r))
+                       .putShort((short)r.getSolutionLength()).putLong(r.getNodes())
+                       .putInt((int)Math.min(Integer.MAX_VALUE, r.getNanos() / 1000));
+            }
+          } catch (RuntimeException | Error e) {
+            c.error = e;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+  }
+
+}
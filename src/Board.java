@@ -0,0 +1,153 @@
+/**
+ * Board.java
+ * An immutable Klondike position that shares structure with the positions it was made from,
+ * for handing the game to readers on other threads. Piles are numbered as in GameState.
+ *
+ * Each pile is its own small array, which is never changed once a board holds it. A board made
+ * with withPiles keeps the arrays of every pile that did not change, so publishing a board after
+ * a move costs the cards of the piles the move touched (two, for any move) rather than a copy of
+ * the whole position, and samePile tells a reader which piles it can skip without looking at a
+ * single card. A board can be read by any number of threads at once without locking, provided
+ * it was handed over safely (through a volatile field, say).
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class Board {
+
+  /**
+   * The empty board
+   */
+  public static final Board EMPTY = of(new GameState());
+
+  /**
+   * Each pile's cards from the bottom up, after its face-down count
+   */
+  private final byte[][] piles;
+  private final long     hash;
+
+  private Board(byte[][] piles, long hash) {
+    this.piles = piles;
+    this.hash  = hash;
+  }
+
+  /**
+   * @return a board holding the position s
+   */
+  public static Board of(GameState s) {
+    byte[][] piles = new byte[GameState.PILES][];
+    for (int p = 0; p < GameState.PILES; p++)
+      piles[p] = pile(s, p);
+    return new Board(piles, s.getHash());
+  }
+
+  /**
+   * Makes the board of s, which differs from this board in no pile outside changed
+   * @param s the position
+   * @param changed a bit mask of the piles that may have changed: bit p for pile p
+   * @return the new board, sharing every other pile with this one
+   */
+  public Board withPiles(GameState s, int changed) {
+    if (changed == 0)
+      return this;
+
+    byte[][] next = piles.clone();
+    for (int p = 0; p < GameState.PILES; p++)
+      if ((changed & 1 << p) != 0)
+        next[p] = pile(s, p);
+    return new Board(next, s.getHash());
+  }
+
+  private static byte[] pile(GameState s, int p) {
+    byte[] pile = new byte[s.size(p) + 1];
+    pile[0] = (byte)s.faceDownCount(p);
+    for (int i = 1; i < pile.length; i++)
+      pile[i] = (byte)s.cardAt(p, i - 1);
+    return pile;
+  }
+
+  /**
+   * @return a new GameState holding this position
+   */
+  public GameState toGameState() {
+    GameState s = new GameState();
+    for (int p = 0; p < GameState.PILES; p++) {
+      byte[] pile = piles[p];
+      for (int i = 1; i < pile.length; i++)
+        s.push(p, pile[i]);
+      if (GameState.isTableau(p))
+        s.setFaceDownCount(p, pile[0]);
+    }
+
+    return s;
+  }
+
+  /**
+   * @return whether pile p of this board and of other is the very same, unchanged pile
+   */
+  public boolean samePile(Board other, int p) {
+    return other != null && piles[p] == other.piles[p];
+  }
+
+  /**
+   * @return the Zobrist hash of the position (see GameState.getHash)
+   */
+  public long getHash() {
+    return hash;
+  }
+
+  /**
+   * @return the number of cards in pile p
+   */
+  public int size(int p) {
+    return piles[p].length - 1;
+  }
+
+  /**
+   * @return whether pile p has no cards
+   */
+  public boolean isEmpty(int p) {
+    return piles[p].length == 1;
+  }
+
+  /**
+   * @return the card at index i of pile p, where index 0 is the bottom of the pile
+   */
+  public int cardAt(int p, int i) {
+    return piles[p][i + 1];
+  }
+
+  /**
+   * @return the top card of pile p or -1 if the pile is empty
+   */
+  public int topCard(int p) {
+    byte[] pile = piles[p];
+    return pile.length == 1 ? -1 : pile[pile.length - 1];
+  }
+
+  /**
+   * @return the number of face-down cards in pile p
+   */
+  public int faceDownCount(int p) {
+    return piles[p][0];
+  }
+
+  /**
+   * @return whether the card at index i of pile p is face up
+   */
+  public boolean isFaceUp(int p, int i) {
+    return i >= piles[p][0];
+  }
+
+  /**
+   * @return whether every card is on a foundation
+   */
+  public boolean isWon() {
+    int total = 0;
+    for (int i = 0; i < GameState.FOUNDATION_PILES; i++)
+      total += size(GameState.FOUNDATION + i);
+
+    return total == GameState.CARDS;
+  }
+
+}
@@ -1,11 +1,5 @@
 import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
 
 /**
  * Card.java
@@ -20,12 +14,15 @@ public class Card {
   private String suit;
   private String face;
   
-  private BufferedImage suitImg;
+  /**
+   * The primitive id of the card (see CardId)
+   */
+  private byte id;
+  
   // TODO: re-add when faceImg functionality is added
   //private BufferedImage faceImg;
   
   private Color color;
-  private Font  font;
   
   private int cornerX, cornerY;
   private int rightX;
@@ -33,6 +30,12 @@ public class Card {
   
   public static final int HEIGHT = 100, WIDTH = 60;
   
+  /**
+   * The radius of a card's rounded corners. A card covering another one leaves this much of it
+   * showing through its corners.
+   */
+  public static final int CORNER = 5;
+  
   /**
    * All possible suits a card may have
    */
@@ -72,67 +75,54 @@ public class Card {
   public Card(String f, String s, int x, int y) {
     setFace(f);
     setSuit(s);
+    id = (byte)CardId.of(getSuitIndex(suit), getFaceIndex(face));
     setLocation(x, y);
     if (!initImage()) {
       // TODO: quit the game here somehow
     }
     faceDown = true;
-    font = new Font("Courier New", Font.BOLD, 20);
   }
   
   /**
-   * Draws the card to a graphics context
+   * Draws the card to a graphics context by blitting its sprite (see CardSprites)
    * @param g the graphics context to draw the card on
    */
   public void draw(Graphics g) {
-    if (!faceDown) {
-      g.setColor(Color.white);
-      g.fillRoundRect(cornerX, cornerY, WIDTH, HEIGHT, 10, 10);
-      g.setColor(color);
-      g.setFont(font);
-      g.drawString(face  , cornerX + 3, cornerY + 20);
-      g.drawImage(suitImg, cornerX + 3, cornerY + 25, null);
-    } else { // draw the back of the card
-      g.setColor(new Color(0, 125, 150));
-      g.fillRoundRect(cornerX, cornerY, WIDTH, HEIGHT, 10, 10);
-    }
-    g.setColor(Color.black);
-    g.drawRoundRect(cornerX, cornerY, WIDTH, HEIGHT, 10, 10);
+    Metrics.cardDrawn();
+    CardSprites.current().draw(g, faceDown ? CardSprites.BACK : id, cornerX, cornerY);
   }
   
   /**
-   * Initializes the suit and face images of the card depending on what suit and face the card is
+   * Draws only the top left width by height part of the card, for a card that other cards
+   * cover the rest of
+   * @param g the graphics context to draw the card on
+   * @param width the width of the part to draw
+   * @param height the height of the part to draw
+   */
+  public void draw(Graphics g, int width, int height) {
+    Metrics.cardDrawn();
+    CardSprites.current().draw(g, faceDown ? CardSprites.BACK : id, cornerX, cornerY, width, height);
+  }
+  
+  /**
+   * Initializes the color of the card and checks its suit image can be loaded. The image itself
+   * is only drawn into the card's sprite (see CardSprites).
    * @return whether the image initialization was successful
    */
   private boolean initImage() {
-    boolean success = true;
-    try {
-      switch (suit) {
-      case "S":
-        suitImg = ImageIO.read(new File("images/spade.png"));
-        color   = Color.black;
-        break;
-      case "H":
-        suitImg = ImageIO.read(new File("images/heart.png"));
-        color   = Color.red;
-        break;
-      case "D":
-        suitImg = ImageIO.read(new File("images/diamond.png"));
-        color   = Color.red;
-        break;
-      case "C":
-        suitImg = ImageIO.read(new File("images/club.png"));
-        color   = Color.black;
-        break;
-      default: // should be impossible
-        success = false;
-      }
-    } catch (IOException ioex) {
-      System.out.println("Error reading image.");
-      success = false;
+    switch (suit) {
+    case "S":
+    case "C":
+      color = Color.black;
+      break;
+    case "H":
+    case "D":
+      color = Color.red;
+      break;
+    default: // should be impossible
+      return false;
     }
-    
-    return success;
+    return SuitImages.get(getSuitIndex(suit)) != null;
   }
   
   /**
@@ -201,6 +191,13 @@ public class Card {
     return face;
   }
   
+  /**
+   * @return the card's primitive id (see CardId)
+   */
+  public int getId() {
+    return id;
+  }
+  
   /**
    * Returns the index in the faces array of the passed in the string
    * @param s the string to check
@@ -277,7 +274,7 @@ public class Card {
    * @return whether this card and c have the same suit and face
    */
   public boolean equals(Card c) {
-    return c.getSuit().equals(this.suit) && c.getFace().equals(this.face);
+    return c.getId() == this.id;
   }
   
   /**
@@ -0,0 +1,135 @@
+/**
+ * CardId.java
+ * The primitive form of a card: a number from 0 to 51, equal to
+ * suit index * 13 + face index (using the orders of Card.SUITS and Card.FACES).
+ * The face, suit and color of every id are looked up in precomputed tables, and so are the
+ * two stacking rules, so checking a move never touches a String or a java.awt.Color and never
+ * allocates.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class CardId {
+
+  /**
+   * The number of card ids
+   */
+  public static final int COUNT = GameState.CARDS;
+
+  /**
+   * The color of black (spades and clubs) and red (hearts and diamonds) cards
+   */
+  public static final int BLACK = 0, RED = 1;
+
+  /**
+   * The number of ways to relabel the suits that keep every card's color: as they are, with
+   * the two black suits swapped, with the two red suits swapped, and with both swapped. No rule
+   * of the game can tell a position from its relabelings, so they are all won or all lost.
+   */
+  public static final int SYMMETRIES = 4;
+
+  private static final byte[] FACE  = new byte[COUNT];
+  private static final byte[] SUIT  = new byte[COUNT];
+  private static final byte[] COLOR = new byte[COUNT];
+
+  /**
+   * RELABELED[k * COUNT + c] is card c under relabeling k
+   */
+  private static final byte[] RELABELED = new byte[SYMMETRIES * COUNT];
+
+  /**
+   * Bit t of TABLEAU_TARGETS[c] is set when card c may be dropped on a main pile whose top card
+   * is t. Bit 63 stands for an empty main pile, which is where (-1 & 63) lands.
+   */
+  private static final long[] TABLEAU_TARGETS = new long[COUNT];
+
+  /**
+   * The card that must be on top of a suit pile for card c to be dropped on it, or -1 (an
+   * empty suit pile) for aces
+   */
+  private static final byte[] FOUNDATION_BELOW = new byte[COUNT];
+
+  static {
+    for (int c = 0; c < COUNT; c++) {
+      FACE[c]  = (byte)(c % GameState.FACES);
+      SUIT[c]  = (byte)(c / GameState.FACES);
+      COLOR[c] = (byte)((SUIT[c] == 1 || SUIT[c] == 2) ? RED : BLACK);
+    }
+    for (int c = 0; c < COUNT; c++) {
+      if (FACE[c] == GameState.FACES - 1)
+        TABLEAU_TARGETS[c] |= 1L << 63;
+      for (int t = 0; t < COUNT; t++)
+        if (COLOR[c] != COLOR[t] && FACE[c] + 1 == FACE[t])
+          TABLEAU_TARGETS[c] |= 1L << t;
+      FOUNDATION_BELOW[c] = (byte)(FACE[c] == 0 ? -1 : c - 1);
+    }
+    // spades (0) and clubs (3) are black, hearts (1) and diamonds (2) red
+    int[][] suits = {{0, 1, 2, 3}, {3, 1, 2, 0}, {0, 2, 1, 3}, {3, 2, 1, 0}};
+    for (int k = 0; k < SYMMETRIES; k++)
+      for (int c = 0; c < COUNT; c++)
+        RELABELED[k * COUNT + c] = (byte)of(suits[k][SUIT[c]], FACE[c]);
+  }
+
+  private CardId() {
+  }
+
+  /**
+   * @return the id of the card with suit index suit and face index face
+   */
+  public static int of(int suit, int face) {
+    return suit * GameState.FACES + face;
+  }
+
+  /**
+   * @return the index in Card.FACES of card c
+   */
+  public static int face(int c) {
+    return FACE[c];
+  }
+
+  /**
+   * @return the index in Card.SUITS of card c
+   */
+  public static int suit(int c) {
+    return SUIT[c];
+  }
+
+  /**
+   * @return the color of card c: either BLACK or RED
+   */
+  public static int color(int c) {
+    return COLOR[c];
+  }
+
+  /**
+   * @return card c with its suit relabeled by relabeling k, 0 to SYMMETRIES - 1 (0 changes
+   *         nothing)
+   */
+  public static int relabel(int k, int c) {
+    return RELABELED[k * COUNT + c];
+  }
+
+  /**
+   * Returns whether card may be dropped on a main pile whose top card is target: the pile
+   * must be empty and the card a king, or the target must be the opposite color and one face
+   * higher
+   * @param card the card being dropped
+   * @param target the top card of the main pile or -1 if the pile is empty
+   * @return whether the drop is legal
+   */
+  public static boolean canStackOnTableau(int card, int target) {
+    return ((TABLEAU_TARGETS[card] >>> (target & 63)) & 1L) != 0;
+  }
+
+  /**
+   * Returns whether card may be dropped on a suit pile whose top card is target: the pile
+   * must be empty and the card an ace, or the target must be the same suit and one face lower
+   * @param card the card being dropped
+   * @param target the top card of the suit pile or -1 if the pile is empty
+   * @return whether the drop is legal
+   */
+  public static boolean canStackOnFoundation(int card, int target) {
+    return FOUNDATION_BELOW[card] == target;
+  }
+
+}
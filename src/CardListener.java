@@ -1,4 +1,3 @@
-import java.awt.Color;
 import java.awt.event.MouseEvent;
 
 import javax.swing.event.MouseInputAdapter;
@@ -6,6 +5,10 @@ import javax.swing.event.MouseInputAdapter;
 
 /**
  * CardListener.java
+ * Turns mouse events into moves for the panel's GameLoop. Cards are lifted off their pile while
+ * they are dragged; when they are dropped the loop's engine decides whether the move is legal,
+ * and the panel's piles are updated to match once it has. Nothing is picked up while an input
+ * is still being handled. Each callback is timed (see Metrics).
  *
  * @author  Jake
  * @version Mar 18, 2014
@@ -16,10 +19,13 @@ public class CardListener extends MouseInputAdapter {
   
   private Deck deck;
   
-  private Pile[] mainPiles, suitPiles;
-  private Pile   deckPile; // the pile of the cards the user has drawn from the deck
-  
   private Pile origPile;
+  private int  origIndex; // the engine's pile number for origPile
+  
+  /**
+   * The piles a drop may land on, best first (see HitIndex.dropTargets)
+   */
+  private final int[] targets = new int[HitIndex.MAX_TARGETS];
   
   private int lastX, lastY;
   
@@ -30,12 +36,10 @@ public class CardListener extends MouseInputAdapter {
   public CardListener(GamePanel panel) {
     this.panel   = panel;
     deck = panel.getDeck();
-    mainPiles = panel.getMainPiles();
-    suitPiles = panel.getSuitPiles();
-    deckPile  = panel.getDeckPile();
     lastX = 0;
     lastY = 0;
-    origPile = null;
+    origPile  = null;
+    origIndex = -1;
   }
   
   @Override
@@ -48,27 +52,32 @@ public class CardListener extends MouseInputAdapter {
    * Selects a card when it is clicked
    */
   public void mousePressed(MouseEvent e) {
-    panel.selectedPile = getPileClicked(e);
-    if (panel.selectedPile != null) {
+    long start = System.nanoTime();
+    if (!panel.isSettled()) {
+      Metrics.PRESSED.record(System.nanoTime() - start);
+      return;
+    }
+    int hit = panel.getHitIndex().hit(e.getX(), e.getY());
+    Pile selected = null;
+    if (hit != HitIndex.NONE) {
+      origIndex = HitIndex.pile(hit);
+      origPile  = panel.getPile(origIndex);
+      selected  = origPile.getPileAt(HitIndex.card(hit));
+    } else {
+      origIndex = -1;
+      origPile  = null;
+    }
+    panel.setSelectedPile(selected);
+    
+    if (selected != null) {
       lastX = e.getX();
       lastY = e.getY();
-    } else { // if no pile was clicked, check if the deck was
-      if (deck.hasBeenClicked(e)) {
-        if (deck.size() == 0) {
-          deck.addToDeck(deckPile);
-        } else {
-          for (int i = 0; i < 3; i++) {
-            Card c = deck.getCardOnTop();
-            if (c != null) {
-              deckPile.addToPile(c);
-              deck.removeCardOnTop();
-            }
-          }
-          deckPile.turnAllCardsUp();
-        }
-      }
+      panel.markDirty(selected.getBounds());
+    } else if (deck.hasBeenClicked(e)) { // if no card was clicked, check if the deck was
+      panel.clickStock(start);
     }
-    panel.repaint();
+    panel.repaintDirty();
+    Metrics.PRESSED.record(System.nanoTime() - start);
   }
   
   @Override
@@ -76,91 +85,39 @@ public class CardListener extends MouseInputAdapter {
    * Moves the card as it is dragged by the mouse
    */
   public void mouseDragged(MouseEvent e) {
-    if (panel.selectedPile != null) {
-      int newX = panel.selectedPile.getX() + (e.getX() - lastX);
-      int newY = panel.selectedPile.getY() + (e.getY() - lastY);
-      panel.selectedPile.setLocation(newX, newY);
+    long start = System.nanoTime();
+    Pile selected = panel.getSelectedPile();
+    if (selected != null && origPile != null) {
+      // repaint where the cards were and where they are now
+      panel.markDirty(selected.getBounds());
+      int newX = selected.getX() + (e.getX() - lastX);
+      int newY = selected.getY() + (e.getY() - lastY);
+      selected.setLocation(newX, newY);
       lastX = e.getX();
       lastY = e.getY();
+      panel.markDirty(selected.getBounds());
     }
-    panel.repaint();
+    panel.repaintDirty();
+    Metrics.DRAGGED.record(System.nanoTime() - start);
   }
   
   @Override
   /**
-   * Drops a card on a pile only if it has the right face and color
+   * Drops the selected cards on the pile they overlap most that the engine accepts them on
    */
   public void mouseReleased(MouseEvent e) {
-    Pile p = panel.selectedPile;
-    if (p != null) {
-      boolean validDrop = false;
-      // check to see if the selectedPile has been dropped on a main pile
-      for (int i = 0; i < mainPiles.length; i++) {
-        if (mainPiles[i].droppedOnPile(p)) {
-          if (mainPiles[i].isEmpty()) {
-            if (p.getCardOnBottom().getFace().equals("K")) {
-              mainPiles[i].addToPile(p);
-              origPile.turnTopCardUp();
-              validDrop = true;
-            }
-          } else { // if not empty
-            // only add if the colors are NOT the same
-            if (!p.getCardOnBottom().getColor().equals(mainPiles[i].getCardOnTop().getColor())) {
-              // now ensure the faces are descending
-              if (Card.getFaceIndex(p.getCardOnBottom().getFace()) + 1 == Card.getFaceIndex(mainPiles[i].getCardOnTop().getFace())) {
-                mainPiles[i].addToPile(p);
-                origPile.turnTopCardUp();
-                validDrop = true;
-                break;
-              }
-            }
-          } // end isEmpty() condition
-        }
-      }
-      
-      // if the drop is still invalid, check if it's been dropped on a suit pile instead
-      if (!validDrop) {
-        for (int i = 0; i < suitPiles.length; i++) {
-          if (suitPiles[i].droppedOnPile(p)) {
-            if (suitPiles[i].isEmpty()) {
-              if (p.size() == 1) {
-                if (p.getCardOnBottom().getFace().equals("A")) {
-                  suitPiles[i].addToPile(p.getCardOnBottom());
-                  origPile.turnTopCardUp();
-                  validDrop = true;
-                }
-              }
-            } else {
-              if (p.size() == 1) { // only single cards can be added to suit piles
-                // the suits must be the same for cards being added
-                if (Card.getSuitIndex(p.getCardOnBottom().getSuit()) == Card.getSuitIndex(suitPiles[i].getCardOnTop().getSuit())) {
-                  // the faces must be in ascending order
-                  if (Card.getFaceIndex(p.getCardOnBottom().getFace()) == Card.getFaceIndex(suitPiles[i].getCardOnTop().getFace()) + 1) {
-                    suitPiles[i].addToPile(p.getCardOnBottom());
-                    origPile.turnTopCardUp();
-                    validDrop = true;
-                  }
-                }
-              }
-            } // end isEmpty() condition
-            
-            
-          }
-        }
-      }
-      
-      if (!validDrop) {
-        if (p.size() == 1) {
-          origPile.addToPile(p.getCardOnBottom());
-        } else {
-          origPile.addToPile(p);
-        }
-      }
+    long start = System.nanoTime();
+    Pile p = panel.getSelectedPile();
+    if (p != null && origPile != null) {
+      // valid or not, the cards go wherever the engine has them once it has decided
+      int n = panel.getHitIndex().dropTargets(p.getCardAt(0), origIndex, targets);
+      panel.drop(origIndex, targets, n, start);
     }
     
-    panel.selectedPile = null;
-    origPile = null;
-    panel.repaint();
+    origPile  = null;
+    origIndex = -1;
+    panel.repaintDirty();
+    Metrics.RELEASED.record(System.nanoTime() - start);
   }
   
   @Override
@@ -168,31 +125,4 @@ public class CardListener extends MouseInputAdapter {
     
   }
   
-  /**
-   * Returns the card that was clicked or null if no card was clicked
-   * @param e the mouse event to check
-   * @return the card that was clicked or null if no card was clicked
-   */
-  private Pile getPileClicked(MouseEvent e) {
-    Pile clicked = null;
-    origPile     = null;
-    // check the main piles and then the suit piles
-    for (int i = 0; i < mainPiles.length; i++) {
-      if ((clicked = mainPiles[i].pileHasBeenClicked(e)) != null) {
-        origPile = mainPiles[i];
-        return clicked;
-      }
-    }
-    
-    for (int i = 0; i < suitPiles.length; i++) {
-      if ((clicked = suitPiles[i].pileHasBeenClicked(e)) != null) {
-        origPile = suitPiles[i];
-        return clicked;
-      }
-    }
-    
-    if ((clicked = deckPile.pileHasBeenClicked(e)) != null) origPile = deckPile;
-    return clicked;
-  }
-  
 }
\ No newline at end of file
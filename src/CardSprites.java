@@ -0,0 +1,181 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.DirectColorModel;
+
+/**
+ * CardSprites.java
+ * An atlas with every card face and the card back rendered once, so painting a card is a single
+ * drawImage of its cell instead of a rounded rectangle, a string, a suit image and an outline.
+ *
+ * The atlas is rendered at the scale the panel is painted at (2 on a 2x high-DPI display), so
+ * each blit copies device pixels one to one instead of stretching a 1x image. The cards are
+ * drawn without antialiasing, so every atlas pixel is either opaque or clear, and the atlas
+ * uses a bitmask image: blitting it skips the per-pixel blending a translucent image costs.
+ * When the screen is available the atlas is compatible with it, so Java2D can keep it in
+ * video memory.
+ *
+ * The current atlas is shared by every card and is only used from the event dispatch thread.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class CardSprites {
+
+  /**
+   * The sprite of the card back; the faces are sprites 0 to 51, by CardId
+   */
+  public static final int BACK = CardId.COUNT;
+
+  /**
+   * The color of the card back
+   */
+  public static final Color BACK_COLOR = new Color(0, 125, 150);
+
+  private static final Font FONT = new Font("Courier New", Font.BOLD, 20);
+
+  /**
+   * Each sprite is Card.WIDTH + 1 by Card.HEIGHT + 1 (the outline is drawn one pixel past the
+   * card) and sits in a cell one pixel bigger still, so no sprite bleeds into its neighbours
+   * when drawn at a fractional scale
+   */
+  private static final int SPRITE_W = Card.WIDTH + 1, SPRITE_H = Card.HEIGHT + 1;
+  private static final int CELL_W   = SPRITE_W + 1,   CELL_H   = SPRITE_H + 1;
+  private static final int COLUMNS  = GameState.FACES, ROWS = GameState.SUITS + 1;
+
+  private static CardSprites current;
+
+  private final double        scale;
+  private final BufferedImage atlas;
+
+  /**
+   * Where each sprite is in the atlas, in atlas pixels
+   */
+  private final int[] sx1 = new int[BACK + 1], sy1 = new int[BACK + 1];
+  private final int[] sx2 = new int[BACK + 1], sy2 = new int[BACK + 1];
+
+  /**
+   * Renders the atlas
+   * @param scale the number of device pixels per panel pixel
+   */
+  private CardSprites(double scale) {
+    this.scale = scale;
+    atlas = createImage((int)Math.ceil(COLUMNS * CELL_W * scale), (int)Math.ceil(ROWS * CELL_H * scale),
+                        Transparency.BITMASK);
+
+    Graphics2D g = atlas.createGraphics();
+    g.scale(scale, scale);
+    for (int sprite = 0; sprite <= BACK; sprite++) {
+      int x = (sprite % COLUMNS) * CELL_W, y = (sprite / COLUMNS) * CELL_H;
+      paint(g, sprite, x, y);
+      sx1[sprite] = (int)Math.round(x * scale);
+      sy1[sprite] = (int)Math.round(y * scale);
+      sx2[sprite] = (int)Math.round((x + SPRITE_W) * scale);
+      sy2[sprite] = (int)Math.round((y + SPRITE_H) * scale);
+    }
+    g.dispose();
+  }
+
+  /**
+   * Makes the atlas for scale the current one, rendering it if the scale changed
+   * @param scale the number of device pixels per panel pixel
+   * @return the current atlas
+   */
+  public static CardSprites forScale(double scale) {
+    if (current == null || current.scale != scale)
+      current = new CardSprites(scale);
+
+    return current;
+  }
+
+  /**
+   * @return the current atlas, rendered at a scale of 1 if there is none yet
+   */
+  public static CardSprites current() {
+    return (current != null) ? current : forScale(1);
+  }
+
+  /**
+   * Draws a sprite with its top left corner at (x, y)
+   * @param g the graphics context to draw on
+   * @param sprite a CardId, or BACK
+   */
+  public void draw(Graphics g, int sprite, int x, int y) {
+    draw(g, sprite, x, y, SPRITE_W, SPRITE_H);
+  }
+
+  /**
+   * Draws the top left width by height part of a sprite with its top left corner at (x, y),
+   * for a card that is partly covered by others
+   * @param g the graphics context to draw on
+   * @param sprite a CardId, or BACK
+   */
+  public void draw(Graphics g, int sprite, int x, int y, int width, int height) {
+    width  = Math.min(width, SPRITE_W);
+    height = Math.min(height, SPRITE_H);
+    if (scale == 1 || !(g instanceof Graphics2D)) {
+      g.drawImage(atlas, x, y, x + width, y + height, sx1[sprite], sy1[sprite],
+                  sx1[sprite] + width, sy1[sprite] + height, null);
+      return;
+    }
+    
+    int sx2 = (width  == SPRITE_W) ? this.sx2[sprite] : sx1[sprite] + (int)Math.round(width * scale);
+    int sy2 = (height == SPRITE_H) ? this.sy2[sprite] : sy1[sprite] + (int)Math.round(height * scale);
+    blit((Graphics2D)g, atlas, scale, (int)Math.round(x * scale), (int)Math.round(y * scale),
+         sx1[sprite], sy1[sprite], sx2, sy2);
+  }
+
+  /**
+   * Copies a rectangle of image, rendered at scale, to device pixel (dx, dy) of g. The scale of
+   * g is undone for the copy, so Java2D copies the pixels one to one instead of scaling them.
+   * @param g a graphics context scaled by scale
+   */
+  static void blit(Graphics2D g, BufferedImage image, double scale, int dx, int dy,
+                   int sx1, int sy1, int sx2, int sy2) {
+    g.scale(1 / scale, 1 / scale);
+    g.drawImage(image, dx, dy, dx + sx2 - sx1, dy + sy2 - sy1, sx1, sy1, sx2, sy2, null);
+    g.scale(scale, scale);
+  }
+
+  /**
+   * Renders one sprite the way cards were drawn before there was an atlas
+   * @param sprite a CardId, or BACK
+   */
+  private static void paint(Graphics g, int sprite, int x, int y) {
+    if (sprite != BACK) {
+      g.setColor(Color.white);
+      g.fillRoundRect(x, y, Card.WIDTH, Card.HEIGHT, 10, 10);
+      g.setColor(CardId.color(sprite) == CardId.RED ? Color.red : Color.black);
+      g.setFont(FONT);
+      g.drawString(Card.FACES[CardId.face(sprite)], x + 3, y + 20);
+      g.drawImage(SuitImages.get(CardId.suit(sprite)), x + 3, y + 25, null);
+    } else {
+      g.setColor(BACK_COLOR);
+      g.fillRoundRect(x, y, Card.WIDTH, Card.HEIGHT, 10, 10);
+    }
+    g.setColor(Color.black);
+    g.drawRoundRect(x, y, Card.WIDTH, Card.HEIGHT, 10, 10);
+  }
+
+  /**
+   * @param transparency Transparency.OPAQUE or Transparency.BITMASK
+   * @return an image compatible with the screen, or a plain one when there is no screen
+   */
+  static BufferedImage createImage(int width, int height, int transparency) {
+    if (GraphicsEnvironment.isHeadless()) {
+      if (transparency == Transparency.OPAQUE)
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      // RGB with a one-bit alpha, which Java2D has its own fast blits for
+      DirectColorModel cm = new DirectColorModel(25, 0xFF0000, 0xFF00, 0xFF, 0x1000000);
+      return new BufferedImage(cm, cm.createCompatibleWritableRaster(width, height), false, null);
+    }
+
+    return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+        .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+  }
+
+}
@@ -0,0 +1,92 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deal.java
+ * Numbered deals. Deal number seed is the order of the 52 card ids that Deck(seed) holds and
+ * GameState.deal lays out, and it is the same on every run and every JVM, so any game can be
+ * dealt again from its number alone. The order is an unbiased Fisher-Yates shuffle driven by
+ * a FastRandom; each thread reuses its own generator, so threads dealing at the same time
+ * never contend and dealing allocates nothing but the order itself.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class Deal {
+
+  private static final ThreadLocal<FastRandom> RANDOM = new ThreadLocal<FastRandom>() {
+    protected FastRandom initialValue() {
+      return new FastRandom(0);
+    }
+  };
+
+  private Deal() {
+  }
+
+  /**
+   * @return the card order of deal number seed
+   */
+  public static byte[] order(long seed) {
+    byte[] order = new byte[GameState.CARDS];
+    shuffle(seed, order);
+    return order;
+  }
+
+  /**
+   * Fills order with the card order of deal number seed
+   * @param seed the deal number
+   * @param order an array of GameState.CARDS card ids to fill
+   */
+  public static void shuffle(long seed, byte[] order) {
+    FastRandom random = RANDOM.get();
+    random.setSeed(seed);
+    for (int i = 0; i < GameState.CARDS; i++)
+      order[i] = (byte)i;
+    for (int i = GameState.CARDS - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      byte t = order[i]; order[i] = order[j]; order[j] = t;
+    }
+  }
+
+  /**
+   * @return the position at the start of deal number seed
+   */
+  public static GameState state(long seed) {
+    return GameState.deal(order(seed));
+  }
+
+  /**
+   * Returns the fingerprint of a deal: a 64-bit key shared by the deal and every deal that
+   * differs from it only by a relabeling of the suits that keeps each card's color (see
+   * CardId.SYMMETRIES), which plays exactly the same. It is the hash of the smallest of the
+   * relabeled orders, comparing card by card, so two deals share a fingerprint when they are
+   * relabelings of each other and otherwise only by a 64-bit hash collision.
+   * @param order the 52 card ids in deck order
+   * @return the fingerprint
+   */
+  public static long fingerprint(byte[] order) {
+    int best = 0;
+    for (int k = 1; k < CardId.SYMMETRIES; k++) {
+      for (int i = 0; i < GameState.CARDS; i++) {
+        int d = CardId.relabel(k, order[i]) - CardId.relabel(best, order[i]);
+        if (d != 0) {
+          if (d < 0)
+            best = k;
+          break;
+        }
+      }
+    }
+
+    long h = 0;
+    for (int i = 0; i < GameState.CARDS; i++)
+      h = Zobrist.mix(h ^ CardId.relabel(best, order[i]));
+    return h;
+  }
+
+  /**
+   * @return a deal number picked at random, for starting a game nobody asked for by number
+   */
+  public static long randomSeed() {
+    return ThreadLocalRandom.current().nextLong();
+  }
+
+}
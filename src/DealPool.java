@@ -0,0 +1,269 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DealPool.java
+ * A pool of deal numbers (see Deal) that a Solver has proven winnable, for dealing only games
+ * that can be won. Taking a deal from the pool never waits: when the pool is empty poll
+ * returns null and the caller deals an unverified game instead.
+ *
+ * The pool holds at most its capacity. Whenever taking a deal leaves it at or below its low
+ * water mark, background workers (daemon threads at the lowest priority, each with its own
+ * Solver) deal random games and add the ones they win until the pool is full again. Deals
+ * the solver gives up on are thrown away with the lost ones.
+ *
+ * The pool is kept in a file, so deals verified in one run are dealt in the next. The file is
+ * rewritten (atomically, through a temporary file) on a thread of its own after every change,
+ * so taking a deal never waits on the disk; a deal taken just before the program stops, before
+ * the save has run, can be dealt again after a restart. File layout (big-endian): MAGIC,
+ * VERSION and the number of deals (HEADER_SIZE bytes), then the deal numbers, 8 bytes each.
+ *
+ * Usage: java Handler deal-pool file [capacity] (fills the pool file and exits)
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class DealPool {
+
+  public static final int MAGIC       = 0x534F4C50; // "SOLP"
+  public static final int VERSION     = 1;
+  public static final int HEADER_SIZE = 8;
+
+  /**
+   * The default capacity and low water mark
+   */
+  public static final int DEFAULT_CAPACITY = 64, DEFAULT_LOW_WATER = 16;
+
+  /**
+   * The most deals a pool can hold, since the file keeps the count in 2 bytes
+   */
+  public static final int MAX_CAPACITY = 0xFFFF;
+
+  /**
+   * The limits of each solve: a deal that takes more is not worth waiting for
+   */
+  private static final int  TABLE_BITS = 18;
+  private static final long MAX_NODES  = 2000000;
+
+  private final Path file;
+  private final int  capacity;
+  private final int  lowWater;
+  private final int  threads;
+
+  private final ArrayBlockingQueue<Long> seeds;
+  private final ExecutorService workers;
+  private final ExecutorService saver;
+
+  /**
+   * The number of workers refilling the pool, and whether a save is waiting to run
+   */
+  private final AtomicInteger refilling = new AtomicInteger();
+  private final AtomicBoolean saveQueued = new AtomicBoolean();
+
+  private final ThreadLocal<Solver> solvers = new ThreadLocal<Solver>() {
+    protected Solver initialValue() {
+      return new Solver(TABLE_BITS, MAX_NODES, Long.MAX_VALUE);
+    }
+  };
+
+  /**
+   * Opens the pool kept in file, with the default capacity and low water mark and a worker for
+   * every other core, and starts refilling it if it is low
+   * @param file the pool file; it is created if it does not exist
+   */
+  public DealPool(Path file) {
+    this(file, DEFAULT_CAPACITY, DEFAULT_LOW_WATER, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+  }
+
+  /**
+   * Opens the pool kept in file and starts refilling it if it is low. A pool file that cannot
+   * be read is reported and replaced.
+   * @param file the pool file; it is created if it does not exist
+   * @param capacity the most deals to hold, at most MAX_CAPACITY
+   * @param lowWater the number of deals at or below which the pool is refilled
+   * @param threads the number of workers refilling the pool
+   */
+  public DealPool(Path file, int capacity, int lowWater, int threads) {
+    if (capacity < 1 || capacity > MAX_CAPACITY || lowWater < 0 || lowWater >= capacity || threads < 1)
+      throw new IllegalArgumentException("need 0 <= low water < capacity <= " + MAX_CAPACITY +
+                                         " and at least one thread");
+
+    this.file     = file;
+    this.capacity = capacity;
+    this.lowWater = lowWater;
+    this.threads  = threads;
+    seeds   = new ArrayBlockingQueue<Long>(capacity);
+    workers = Executors.newFixedThreadPool(threads, daemons("deal-pool-solver", Thread.MIN_PRIORITY));
+    saver   = Executors.newSingleThreadExecutor(daemons("deal-pool-save", Thread.NORM_PRIORITY));
+
+    try {
+      load();
+    } catch (IOException | IllegalArgumentException e) {
+      System.err.println("starting an empty deal pool: " + e);
+    }
+    refillIfLow();
+  }
+
+  private static ThreadFactory daemons(final String name, final int priority) {
+    return new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, name + "-" + count.getAndIncrement());
+        t.setDaemon(true);
+        t.setPriority(priority);
+        return t;
+      }
+    };
+  }
+
+  /**
+   * Takes a winnable deal out of the pool, without waiting
+   * @return the deal number, or null if the pool is empty
+   */
+  public Long poll() {
+    Long seed = seeds.poll();
+    if (seed != null)
+      queueSave();
+    refillIfLow();
+    return seed;
+  }
+
+  /**
+   * @return the number of deals in the pool
+   */
+  public int size() {
+    return seeds.size();
+  }
+
+  /**
+   * @return the most deals the pool holds
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Starts the workers if the pool is at or below its low water mark and they are not running
+   */
+  private void refillIfLow() {
+    if (seeds.size() > lowWater || !refilling.compareAndSet(0, threads))
+      return;
+
+    for (int i = 0; i < threads; i++) {
+      workers.execute(new Runnable() {
+        public void run() {
+          try {
+            refill();
+          } finally {
+            refilling.decrementAndGet();
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Solves random deals until the pool is full
+   */
+  private void refill() {
+    Solver solver = solvers.get();
+    byte[] order  = new byte[GameState.CARDS];
+    while (seeds.remainingCapacity() > 0) {
+      long seed = Deal.randomSeed();
+      Deal.shuffle(seed, order);
+      if (solver.solve(GameState.deal(order)).isSolved() && seeds.offer(seed))
+        queueSave();
+    }
+  }
+
+  /**
+   * Saves the pool on the saver thread, unless a save is already waiting to run
+   */
+  private void queueSave() {
+    if (!saveQueued.compareAndSet(false, true))
+      return;
+
+    saver.execute(new Runnable() {
+      public void run() {
+        saveQueued.set(false);
+        try {
+          save();
+        } catch (IOException e) {
+          System.err.println("could not save the deal pool: " + e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Adds the deals of the pool file, if there is one, to the pool
+   */
+  private void load() throws IOException {
+    ByteBuffer b;
+    try {
+      b = ByteBuffer.wrap(Files.readAllBytes(file));
+    } catch (NoSuchFileException e) {
+      return;
+    }
+    if (b.remaining() < HEADER_SIZE || b.getInt() != MAGIC || b.getShort() != VERSION)
+      throw new IllegalArgumentException(file + " is not a deal pool file");
+
+    int n = b.getShort() & 0xFFFF;
+    for (int i = 0; i < n && b.remaining() >= 8; i++)
+      seeds.offer(b.getLong());
+  }
+
+  /**
+   * Replaces the pool file, atomically, with the deals now in the pool
+   */
+  private void save() throws IOException {
+    Object[] now = seeds.toArray();
+    ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE + now.length * 8);
+    b.putInt(MAGIC).putShort((short)VERSION).putShort((short)now.length);
+    for (Object seed : now)
+      b.putLong((Long)seed);
+
+    Path temp = Paths.get(file.toString() + ".tmp");
+    Files.write(temp, b.array());
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Fills a pool file and prints how it went
+   * @param out where to print progress
+   */
+  static void fill(Path file, int capacity, PrintStream out) throws InterruptedException {
+    DealPool pool = new DealPool(file, capacity, capacity - 1, Runtime.getRuntime().availableProcessors());
+    long start = System.nanoTime();
+    while (pool.size() < capacity) {
+      Thread.sleep(1000);
+      out.printf("%d of %d deals%n", pool.size(), capacity);
+    }
+    // let the last save finish
+    pool.saver.shutdown();
+    pool.saver.awaitTermination(1, java.util.concurrent.TimeUnit.MINUTES);
+    out.printf("filled %s in %.1f s%n", file, (System.nanoTime() - start) / 1e9);
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    if (args.length < 1) {
+      System.err.println("usage: deal-pool file [capacity]");
+      return;
+    }
+    fill(Paths.get(args[0]), (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_CAPACITY, System.out);
+  }
+
+}
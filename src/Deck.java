@@ -1,4 +1,7 @@
+import java.awt.Color;
+import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 
@@ -14,55 +17,86 @@ public class Deck {
   
   private ArrayList<Card> deck;
   
+  /**
+   * Whether draw shows the number of cards left
+   */
+  private boolean countShown;
+  
+  private static final Font COUNT_FONT = new Font("Courier New", Font.BOLD, 14);
+  
+  /**
+   * The count labels, made once so drawing the count allocates nothing
+   */
+  private static final String[] COUNT_LABELS = new String[GameState.CARDS + 1];
+  static {
+    for (int i = 0; i < COUNT_LABELS.length; i++)
+      COUNT_LABELS[i] = Integer.toString(i);
+  }
+  
+  /**
+   * The number of the deal the deck was shuffled into
+   */
+  private final long seed;
+  
   /**
    * The location of the deck at (xLoc, yLoc)
    */
   private int xLoc, yLoc;
   
   /**
-   * No-arg constructor that adds 52 cards to the deck and shuffles it
+   * No-arg constructor that adds 52 cards to the deck and shuffles them into a random deal
    */
   public Deck() {
-    deck = new ArrayList<Card>();
-    for (int i = 0; i < Card.SUITS.length; i++) {
-      for (int j = 0; j < Card.FACES.length; j++) {
-        deck.add(new Card(Card.FACES[j], Card.SUITS[i]));
-        //deck.add(new Card(Card.FACES[j % 4], Card.SUITS[i % 2]));
-      }
-    }
-    
-    shuffleDeck();
+    this(Deal.randomSeed());
   }
   
   /**
-   * Draws each card in the deck
-   * @param g the graphics context to draw the deck on
+   * Constructor that adds 52 cards to the deck in the order of deal number seed. The same seed
+   * always gives the same deck.
+   * @param seed the deal number
    */
-  public void draw(Graphics g) {
-    for (int i = 0; i < deck.size(); i++) {
-      this.getCardAt(i).draw(g);
+  public Deck(long seed) {
+    this.seed = seed;
+    byte[] order = Deal.order(seed);
+    deck = new ArrayList<Card>(order.length);
+    for (int i = 0; i < order.length; i++) {
+      deck.add(new Card(Card.FACES[CardId.face(order[i])], Card.SUITS[CardId.suit(order[i])]));
     }
   }
   
   /**
-   * Shuffles the deck of cards
+   * Returns the number of the deal the deck was shuffled into
+   * @return the deal number
    */
-  private void shuffleDeck() {
-    for (int i = 0; i < deck.size(); i++) {
-      int index = (int)(Math.random() * deck.size());
-      swap(i, index);
+  public long getSeed() {
+    return seed;
+  }
+  
+  /**
+   * Draws the deck. Every card of the deck is at the same location, so only the top one shows,
+   * along with the number of cards left if that is turned on (see setCountShown).
+   * @param g the graphics context to draw the deck on
+   */
+  public void draw(Graphics g) {
+    Card top = getCardOnTop();
+    if (top == null) {
+      return;
+    }
+    top.draw(g);
+    
+    if (countShown) {
+      g.setColor(Color.white);
+      g.setFont(COUNT_FONT);
+      g.drawString(COUNT_LABELS[size()], xLoc + 6, yLoc + Card.HEIGHT - 6);
     }
   }
   
   /**
-   * Swaps two cards in a deck
-   * @param i1 the first index
-   * @param i2 the second index
+   * Turns the count of cards left, drawn on the top card, on or off
+   * @param shown whether to show the count
    */
-  private void swap(int i1, int i2) {
-    Card temp = this.getCardAt(i1);
-    this.setCardAt(i1, this.getCardAt(i2));
-    this.setCardAt(i2, temp);
+  public void setCountShown(boolean shown) {
+    countShown = shown;
   }
   
   /**
@@ -88,17 +122,6 @@ public class Deck {
     }
   }
   
-  /**
-   * Sets the card at index to c
-   * @param index the index to set
-   * @param c the card to set
-   */
-  private void setCardAt(int index, Card c) {
-    if (withinBounds(index)) {
-      deck.set(index, c);
-    }
-  }
-  
   /**
    * Returns whether i is a valid index in the deck
    * @param i the index to check
@@ -185,6 +208,14 @@ public class Deck {
     return yLoc;
   }
   
+  /**
+   * Returns the area the deck covers on the screen
+   * @return the bounds of the deck
+   */
+  public Rectangle getBounds() {
+    return new Rectangle(xLoc, yLoc, Card.WIDTH + 1, Card.HEIGHT + 1);
+  }
+  
   /**
    * Turns all cards in the deck face down
    */
@@ -195,10 +226,17 @@ public class Deck {
   }
   
   /**
-   * Adds a card to the deck
+   * Removes every card from the deck
+   */
+  public void clear() {
+    deck.clear();
+  }
+  
+  /**
+   * Adds a card to the top of the deck
    * @param c the card to add
    */
-  private void addToDeck(Card c) {
+  public void addToDeck(Card c) {
     this.deck.add(c);
     c.setLocation(xLoc, yLoc);
   }
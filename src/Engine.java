@@ -0,0 +1,240 @@
+/**
+ * Engine.java
+ * The rules of the game, applied to a headless GameState. These are the same rules the
+ * CardListener used to enforce on mouse events:
+ *
+ *   - a card (with any face-up cards on top of it) may be dropped on a main pile if the pile
+ *     is empty and the card is a king, or if the pile's top card is the opposite color and one
+ *     face higher
+ *   - a single card may be dropped on a suit pile if the pile is empty and the card is an ace,
+ *     or if the pile's top card is the same suit and one face lower
+ *   - only the top card of the deck pile (waste) or of a suit pile may be picked up
+ *   - clicking the deck draws three cards, or turns the waste back over if the deck is empty
+ *   - after a move the new top card of the pile the cards came from is turned up
+ *
+ * The two stacking rules themselves are table lookups in CardId.
+ *
+ * An Engine has no Swing or AWT state (it does not even load the Card class), so any number
+ * of games can be played on any thread. An Engine and its GameState must only be used by one
+ * thread at a time.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class Engine {
+
+  /**
+   * The number of cards drawn from the deck per click
+   */
+  public static final int DRAW_COUNT = 3;
+
+  /**
+   * The most legal moves any position can have, so a Move[] of this size always fits the
+   * result of legalMoves
+   */
+  public static final int MAX_MOVES = 128;
+
+  /**
+   * What play returns for a move that is not legal
+   */
+  public static final int ILLEGAL = -1;
+
+  /**
+   * Every record play returns fits in this many low bits, so a record can be stored in a char
+   */
+  public static final int RECORD_BITS = 14;
+
+  private final GameState state;
+
+  /**
+   * Constructs an engine playing the position s. The engine changes s as moves are applied.
+   * @param s the position to play
+   */
+  public Engine(GameState s) {
+    state = s;
+  }
+
+  /**
+   * @return the position being played
+   */
+  public GameState getState() {
+    return state;
+  }
+
+  /**
+   * Returns whether m may be played in the current position
+   * @param m the move to check
+   * @return whether m is legal
+   */
+  public boolean isLegal(Move m) {
+    if (m == Move.DRAW)
+      return !state.isEmpty(GameState.STOCK);
+    if (m == Move.RECYCLE)
+      return state.isEmpty(GameState.STOCK) && !state.isEmpty(GameState.WASTE);
+
+    int from = m.getFrom(), to = m.getTo(), count = m.getCount();
+    if (from == to)
+      return false;
+
+    // only face-up cards can be picked up, and only the top card of the waste or a suit pile
+    if (GameState.isTableau(from)) {
+      if (count > state.size(from) - state.faceDownCount(from))
+        return false;
+    } else if (from == GameState.WASTE || GameState.isFoundation(from)) {
+      if (count != 1 || state.isEmpty(from))
+        return false;
+    } else {
+      return false;
+    }
+
+    // the card that lands on the target is the bottom card of the moved cards
+    int card = state.cardAt(from, state.size(from) - count);
+    if (GameState.isTableau(to))
+      return CardId.canStackOnTableau(card, state.topCard(to));
+    if (GameState.isFoundation(to))
+      return count == 1 && CardId.canStackOnFoundation(card, state.topCard(to));
+
+    return false;
+  }
+
+  /**
+   * Lists every legal move in the current position: the deck click first, then moves from
+   * the main piles, the deck pile and the suit piles, in pile order
+   * @param out where the moves are written; MAX_MOVES long is always enough
+   * @return the number of moves written
+   */
+  public int legalMoves(Move[] out) {
+    int n = 0;
+    if (!state.isEmpty(GameState.STOCK))
+      out[n++] = Move.DRAW;
+    else if (!state.isEmpty(GameState.WASTE))
+      out[n++] = Move.RECYCLE;
+
+    for (int from = GameState.TABLEAU; from < GameState.TABLEAU + GameState.TABLEAU_PILES; from++) {
+      int size = state.size(from);
+      int up   = size - state.faceDownCount(from);
+      if (up == 0)
+        continue;
+      for (int to = GameState.TABLEAU; to < GameState.TABLEAU + GameState.TABLEAU_PILES; to++) {
+        if (to == from)
+          continue;
+        // at most one card of the face-up run can go on any given pile
+        int target = state.topCard(to);
+        for (int count = 1; count <= up; count++) {
+          if (CardId.canStackOnTableau(state.cardAt(from, size - count), target)) {
+            out[n++] = Move.of(from, to, count);
+            break;
+          }
+        }
+      }
+      for (int to = GameState.FOUNDATION; to < GameState.FOUNDATION + GameState.FOUNDATION_PILES; to++) {
+        if (CardId.canStackOnFoundation(state.topCard(from), state.topCard(to)))
+          out[n++] = Move.of(from, to, 1);
+      }
+    }
+
+    n = singleCardMoves(GameState.WASTE, out, n);
+    for (int from = GameState.FOUNDATION; from < GameState.FOUNDATION + GameState.FOUNDATION_PILES; from++)
+      n = singleCardMoves(from, out, n);
+
+    return n;
+  }
+
+  /**
+   * Adds the legal moves of the top card of pile from to out
+   * @return the new number of moves in out
+   */
+  private int singleCardMoves(int from, Move[] out, int n) {
+    int card = state.topCard(from);
+    if (card < 0)
+      return n;
+
+    for (int to = GameState.TABLEAU; to < GameState.TABLEAU + GameState.TABLEAU_PILES; to++) {
+      if (CardId.canStackOnTableau(card, state.topCard(to)))
+        out[n++] = Move.of(from, to, 1);
+    }
+    for (int to = GameState.FOUNDATION; to < GameState.FOUNDATION + GameState.FOUNDATION_PILES; to++) {
+      if (to != from && CardId.canStackOnFoundation(card, state.topCard(to)))
+        out[n++] = Move.of(from, to, 1);
+    }
+
+    return n;
+  }
+
+  /**
+   * Plays m if it is legal
+   * @param m the move to play
+   * @return whether the move was legal (and so has been played)
+   */
+  public boolean apply(Move m) {
+    return play(m) != ILLEGAL;
+  }
+
+  /**
+   * Plays m if it is legal and returns a record of what it did. The record is a small int
+   * (RECORD_BITS bits) holding the piles, the number of cards actually moved and whether a
+   * card was turned up, which is everything undo needs to put the position back and moveOf
+   * needs to play the move again.
+   * @param m the move to play
+   * @return the move's undo record, or ILLEGAL if m is not legal (and so was not played)
+   */
+  public int play(Move m) {
+    if (!isLegal(m))
+      return ILLEGAL;
+
+    int count   = 0;
+    int flipped = 0;
+    if (m == Move.DRAW) {
+      for (; count < DRAW_COUNT && !state.isEmpty(GameState.STOCK); count++)
+        state.push(GameState.WASTE, state.pop(GameState.STOCK));
+    } else if (m == Move.RECYCLE) {
+      for (; !state.isEmpty(GameState.WASTE); count++)
+        state.push(GameState.STOCK, state.pop(GameState.WASTE));
+    } else {
+      count = m.getCount();
+      state.moveCards(m.getFrom(), m.getTo(), count);
+      if (GameState.isTableau(m.getFrom()) && state.turnTopCardUp(m.getFrom()))
+        flipped = 1;
+    }
+
+    return m.getFrom() | (m.getTo() << 4) | (count << 8) | (flipped << 13);
+  }
+
+  /**
+   * Takes back the move that returned record. Moves must be undone in the reverse of the
+   * order they were played.
+   * @param record the record returned by play
+   */
+  public void undo(int record) {
+    int from  = record & 0xF;
+    int to    = (record >>> 4) & 0xF;
+    int count = (record >>> 8) & 0x1F;
+    if (from == GameState.STOCK) { // a draw
+      for (int i = 0; i < count; i++)
+        state.push(GameState.STOCK, state.pop(GameState.WASTE));
+    } else if (to == GameState.STOCK) { // a recycle
+      for (int i = 0; i < count; i++)
+        state.push(GameState.WASTE, state.pop(GameState.STOCK));
+    } else {
+      if ((record & (1 << 13)) != 0)
+        state.turnTopCardDown(from);
+      state.moveCards(to, from, count);
+    }
+  }
+
+  /**
+   * @param record a record returned by play
+   * @return the move that was played to make the record
+   */
+  public static Move moveOf(int record) {
+    int from = record & 0xF;
+    int to   = (record >>> 4) & 0xF;
+    if (from == GameState.STOCK)
+      return Move.DRAW;
+    if (to == GameState.STOCK)
+      return Move.RECYCLE;
+
+    return Move.of(from, to, (record >>> 8) & 0x1F);
+  }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * FrameTimer.java
+ * Keeps the count, average and worst time of the frames a panel has painted. It is only
+ * touched from the event dispatch thread, so it needs no locking.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class FrameTimer {
+
+  private long frames;
+  private long totalNanos;
+  private long maxNanos;
+
+  /**
+   * Records one painted frame
+   * @param nanos the time it took to paint
+   */
+  public void record(long nanos) {
+    frames++;
+    totalNanos += nanos;
+    maxNanos    = Math.max(maxNanos, nanos);
+  }
+
+  /**
+   * Forgets every frame recorded so far
+   */
+  public void reset() {
+    frames = totalNanos = maxNanos = 0;
+  }
+
+  /**
+   * @return the number of frames recorded
+   */
+  public long getFrames() {
+    return frames;
+  }
+
+  /**
+   * @return the average time to paint a frame, in nanoseconds
+   */
+  public long getAverageNanos() {
+    return frames == 0 ? 0 : totalNanos / frames;
+  }
+
+  /**
+   * @return the longest time to paint a frame, in nanoseconds
+   */
+  public long getMaxNanos() {
+    return maxNanos;
+  }
+
+  /**
+   * @return a one-line summary of the frame times
+   */
+  public String toString() {
+    return String.format("%d frames, average %.3f ms, worst %.3f ms",
+                         frames, getAverageNanos() / 1e6, maxNanos / 1e6);
+  }
+
+}
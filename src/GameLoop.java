@@ -0,0 +1,382 @@
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * GameLoop.java
+ * Runs the game logic on a thread of its own, so nothing the logic does can hold up painting.
+ * The loop's thread is the only one that touches the Engine and MoveHistory. Input is handed
+ * to it as Commands on a lock-free queue; after each batch of commands it publishes an
+ * immutable Snapshot of the position (a Board, which shares every pile the batch did not touch
+ * with the board before it) through a volatile field and tells its Listener, which
+ * moves the cards to match on the event dispatch thread. Neither side ever waits for the
+ * other: the input side only enqueues, and the painting side only reads the latest snapshot.
+ *
+ * Every command carries the time its input arrived, and every snapshot the time of the input
+ * of the last command it includes, so the panel can measure input to paint latency.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class GameLoop implements Runnable {
+
+  /**
+   * Told, on the loop's thread, whenever a new snapshot has been published
+   */
+  public interface Listener {
+    void snapshotPublished();
+  }
+
+  /**
+   * What a command does
+   */
+  public static final int CLICK_STOCK = 0, DROP = 1, UNDO = 2, REDO = 3, RESET = 4;
+
+  private final ConcurrentLinkedQueue<Command> queue = new ConcurrentLinkedQueue<Command>();
+  private final AtomicLong submitted = new AtomicLong();
+  private final Listener         listener;
+  private final GameRecordWriter recorder;
+  private final Thread           thread;
+
+  private volatile Snapshot latest = new Snapshot(Board.EMPTY, 0, 0);
+  private volatile boolean  stopped;
+
+  /**
+   * Whether safe moves to the suit piles are played after each move (see AutoPlay)
+   */
+  private volatile boolean autoPlay;
+
+  /**
+   * Only touched on the loop's thread
+   */
+  private Engine      engine;
+  private MoveHistory history;
+
+  /**
+   * Constructs a loop and starts its thread. It holds an empty position until it is reset.
+   * @param listener what to tell about new snapshots
+   * @param recorder where to record dealt games, or null
+   */
+  public GameLoop(Listener listener, GameRecordWriter recorder) {
+    this.listener = listener;
+    this.recorder = recorder;
+    thread = new Thread(this, "game-logic");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Asks for the stock to be clicked: a draw, or a recycle if the stock is empty
+   * @param inputNanos the System.nanoTime the input arrived at
+   * @return the command's sequence number
+   */
+  public long clickStock(long inputNanos) {
+    return submit(new Command(CLICK_STOCK, inputNanos, -1, 0, null, null, false, 0));
+  }
+
+  /**
+   * Asks for count cards to be moved from pile from onto the first of targets that takes them
+   * @param targets the engine's pile numbers to try, best first; the array is not kept
+   * @param n the number of targets
+   * @param inputNanos the System.nanoTime the input arrived at
+   * @return the command's sequence number
+   */
+  public long drop(int from, int count, int[] targets, int n, long inputNanos) {
+    int[] copy = new int[n];
+    System.arraycopy(targets, 0, copy, 0, n);
+    return submit(new Command(DROP, inputNanos, from, count, copy, null, false, 0));
+  }
+
+  /**
+   * Asks for the last move to be taken back
+   * @return the command's sequence number
+   */
+  public long undo(long inputNanos) {
+    return submit(new Command(UNDO, inputNanos, -1, 0, null, null, false, 0));
+  }
+
+  /**
+   * Asks for the last move taken back to be played again
+   * @return the command's sequence number
+   */
+  public long redo(long inputNanos) {
+    return submit(new Command(REDO, inputNanos, -1, 0, null, null, false, 0));
+  }
+
+  /**
+   * Asks for a new game to be played from a copy of s, with an empty history
+   * @param s the position to play from
+   * @param dealt whether s is the deal of number seed (and so can be recorded)
+   * @return the command's sequence number
+   */
+  public long reset(GameState s, boolean dealt, long seed) {
+    return submit(new Command(RESET, System.nanoTime(), -1, 0, null, s.copy(), dealt, seed));
+  }
+
+  private long submit(Command c) {
+    c.seq = submitted.incrementAndGet();
+    queue.offer(c);
+    LockSupport.unpark(thread);
+    return c.seq;
+  }
+
+  /**
+   * Stops the loop's thread once it has handled the commands already submitted, and waits for
+   * it to stop. Commands submitted afterwards are never handled, so they must not be awaited.
+   */
+  public void shutdown() {
+    stopped = true;
+    LockSupport.unpark(thread);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Turns playing safe moves to the suit piles after each of the player's moves on or off.
+   * Undo and redo never play any, or a move played for the player could not be taken back.
+   */
+  public void setAutoPlay(boolean on) {
+    autoPlay = on;
+  }
+
+  /**
+   * @return the most recently published snapshot
+   */
+  public Snapshot getSnapshot() {
+    return latest;
+  }
+
+  /**
+   * @return the sequence number of the last command submitted
+   */
+  public long getSubmitted() {
+    return submitted.get();
+  }
+
+  /**
+   * Waits until every command submitted so far has been handled. Painting must never call
+   * this; it is for loading a position and for tests and benchmarks.
+   * @return the snapshot that includes them
+   */
+  public Snapshot await() {
+    long seq = submitted.get();
+    synchronized (this) {
+      while (latest.seq < seq) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    return latest;
+  }
+
+  public void run() {
+    while (true) {
+      Command c = queue.poll();
+      if (c == null) {
+        if (stopped)
+          return;
+        LockSupport.park(this);
+        continue;
+      }
+
+      // handle everything queued, then publish once
+      int     changed = 0;
+      long    start   = System.nanoTime();
+      Command last;
+      do {
+        try {
+          changed |= handle(c);
+        } catch (RuntimeException e) {
+          // a failed command must not stop the game; what it changed is still published
+          System.err.println("game logic failed on command " + c.kind + ": " + e);
+          changed = (1 << GameState.PILES) - 1;
+        }
+        last = c;
+      } while ((c = queue.poll()) != null);
+      publish(last, changed);
+      Metrics.COMMANDS.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * @return a bit mask of the piles c changed: bit p for pile p
+   */
+  private int handle(Command c) {
+    switch (c.kind) {
+      case CLICK_STOCK:
+        return autoPlay(played(engine.getState().isEmpty(GameState.STOCK) ? Move.RECYCLE : Move.DRAW));
+      case DROP:
+        if (!isValidDrop(c)) {
+          System.err.println("ignoring a drop of " + c.count + " cards from pile " + c.from);
+          return 0;
+        }
+        for (int target : c.targets) {
+          int changed = played(Move.of(c.from, target, c.count));
+          if (changed != 0)
+            return autoPlay(changed);
+        }
+        return 0;
+      case UNDO:
+        if (!history.canUndo())
+          return 0;
+        int undone = history.getRecord(history.getPosition() - 1);
+        history.undo();
+        return piles(undone);
+      case REDO:
+        if (!history.canRedo())
+          return 0;
+        int redone = history.getRecord(history.getPosition());
+        history.redo();
+        return piles(redone);
+      case RESET:
+        engine  = new Engine(c.state);
+        history = new MoveHistory(engine);
+        record(c.dealt, c.seed);
+        return (1 << GameState.PILES) - 1;
+      default:
+        throw new IllegalArgumentException("unknown command " + c.kind);
+    }
+  }
+
+  /**
+   * @return whether every move drop c may try names real piles and a count a move can carry
+   */
+  private static boolean isValidDrop(Command c) {
+    if (c.from < 0 || c.from >= GameState.PILES || c.count < 1 || c.count > Move.MAX_COUNT)
+      return false;
+    for (int target : c.targets)
+      if (target < 0 || target >= GameState.PILES)
+        return false;
+
+    return true;
+  }
+
+  /**
+   * Plays m if it is legal
+   * @return a bit mask of the piles it changed, or 0 if it was not played
+   */
+  private int played(Move m) {
+    return history.play(m) ? 1 << m.getFrom() | 1 << m.getTo() : 0;
+  }
+
+  /**
+   * Plays the safe moves to the suit piles that a move changing the piles changed makes
+   * possible, if auto-play is on
+   * @return a bit mask of the piles the move and the safe moves changed
+   */
+  private int autoPlay(int changed) {
+    if (!autoPlay || changed == 0)
+      return changed;
+    return changed | AutoPlay.play(history, engine.getState(), changed);
+  }
+
+  /**
+   * @return a bit mask of the two piles the move of an engine record changes
+   */
+  private static int piles(int record) {
+    return 1 << (record & 0xF) | 1 << (record >>> 4 & 0xF);
+  }
+
+  /**
+   * Starts recording the new game if it was dealt, or ends the game being recorded
+   */
+  private void record(boolean dealt, long seed) {
+    if (recorder == null)
+      return;
+    try {
+      if (dealt) {
+        recorder.beginGame(seed, Engine.DRAW_COUNT);
+        history.setRecorder(recorder);
+      } else {
+        recorder.endGame();
+      }
+      recorder.flush();
+    } catch (IOException e) {
+      System.err.println("could not record the game: " + e);
+    }
+  }
+
+  private void publish(Command last, int changed) {
+    Board board = latest.board.withPiles(engine.getState(), changed);
+    latest = new Snapshot(board, last.seq, last.inputNanos);
+    synchronized (this) {
+      notifyAll();
+    }
+    listener.snapshotPublished();
+  }
+
+  /**
+   * An input for the loop to handle
+   */
+  private static final class Command {
+
+    final int       kind;
+    final long      inputNanos;
+    final int       from, count;
+    final int[]     targets;
+    final GameState state;
+    final boolean   dealt;
+    final long      seed;
+    long            seq;
+
+    Command(int kind, long inputNanos, int from, int count, int[] targets, GameState state,
+            boolean dealt, long seed) {
+      this.kind       = kind;
+      this.inputNanos = inputNanos;
+      this.from       = from;
+      this.count      = count;
+      this.targets    = targets;
+      this.state      = state;
+      this.dealt      = dealt;
+      this.seed       = seed;
+    }
+
+  }
+
+  /**
+   * The position after some number of commands. A snapshot never changes once published.
+   */
+  public static final class Snapshot {
+
+    private final Board board;
+    private final long  seq;
+    private final long  inputNanos;
+
+    Snapshot(Board board, long seq, long inputNanos) {
+      this.board      = board;
+      this.seq        = seq;
+      this.inputNanos = inputNanos;
+    }
+
+    /**
+     * @return the position
+     */
+    public Board getBoard() {
+      return board;
+    }
+
+    /**
+     * @return the sequence number of the last command the snapshot includes
+     */
+    public long getSeq() {
+      return seq;
+    }
+
+    /**
+     * @return the System.nanoTime the input of the last command arrived at
+     */
+    public long getInputNanos() {
+      return inputNanos;
+    }
+
+  }
+
+}
@@ -1,14 +1,54 @@
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.swing.AbstractAction;
 import javax.swing.JPanel;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 import javax.swing.event.MouseInputAdapter;
 
 /**
  * GamePanel.java
  * The panel that Solitaire is painted on. It is responsible for drawing
  * and initializing all game objects (the deck and all piles).
+ * 
+ * The game itself is played by an Engine on the thread of a GameLoop; the deck and piles only
+ * show where the latest snapshot the loop has published puts each card (see updatePiles). Input
+ * is handed to the loop without waiting for it, and each snapshot is applied on the event
+ * dispatch thread once it is published, so a slow move never holds up painting. The time from
+ * each input to the frame that first shows its effect is recorded (see Metrics.INPUT_TO_PAINT).
+ * Each snapshot holds a Board, which shares every unchanged pile with the board before it, so
+ * only the piles a move touched are looked at; getBoard hands the latest one to other threads.
+ * 
+ * Only what changes is repainted: updatePiles and the CardListener mark the old and new bounds
+ * of every pile that changed or moved (see markDirty), repaintDirty repaints their union, and
+ * paintComponent skips every pile outside the area being painted.
+ * 
+ * Painting is mostly blitting: the green background and the empty pile outlines are rendered
+ * once into a background layer (rebuilt only when the panel is resized), and every card is a
+ * sprite of the CardSprites atlas.
+ * 
+ * Every move is played through a MoveHistory, so Ctrl+Z takes moves back and Ctrl+Y plays them
+ * again, one record at a time. Cards that are safe to move to the suit piles are moved there
+ * after every move (see AutoPlay), all in the same update. H asks a HintEngine for a move,
+ * which is outlined until the player moves. When RECORD_PROPERTY names a file, every game
+ * dealt is also recorded to it (see GameRecord), move by move. When DEAL_POOL_PROPERTY names
+ * a file, games are dealt from a DealPool of deals proven winnable, and only dealt at random
+ * while it is empty.
+ * 
+ * Painting, input handling and pile updates are timed, always (see Metrics). A panel that is
+ * done with must be disposed of, which stops the threads of its loop and hint engine.
  *
  * @author  Jake Wilson
  * @version Mar 15, 2014
@@ -52,29 +92,296 @@ public class GamePanel extends JPanel {
    */
   public static final int SUIT_PILE_Y_LOC = 20;
   
+  /**
+   * The system property that picks the deal number to play (see Deal), for replaying a game
+   */
+  public static final String SEED_PROPERTY = "solitaire.seed";
+  
+  /**
+   * The system property that, when "true", prints the frame times every FRAME_STATS_INTERVAL frames
+   */
+  public static final String FRAME_STATS_PROPERTY = "solitaire.frameStats";
+  
+  private static final int FRAME_STATS_INTERVAL = 100;
+  
+  /**
+   * The system property that, when "true", shows the number of cards left in the deck
+   */
+  public static final String STOCK_COUNT_PROPERTY = "solitaire.stockCount";
+  
+  /**
+   * The system property that names a file to record every game to, for replaying it later
+   */
+  public static final String RECORD_PROPERTY = "solitaire.recordFile";
+  
+  /**
+   * The system property that, when "false", stops cards being moved to the suit piles for the
+   * player when it is safe (see AutoPlay)
+   */
+  public static final String AUTO_PLAY_PROPERTY = "solitaire.autoPlay";
+  
+  /**
+   * The system property that names a DealPool file; when it is set, games are dealt from the
+   * winnable deals in the pool while it has any
+   */
+  public static final String DEAL_POOL_PROPERTY = "solitaire.dealPool";
+  
+  /**
+   * The pool DEAL_POOL_PROPERTY names, shared by every panel, or null until the first is made
+   */
+  private static DealPool dealPool;
+  
   private Pile[] mainPiles, suitPiles;
   private Pile   deckPile;
   
+  /**
+   * Finds the pile and card under a point
+   */
+  private HitIndex hitIndex;
+  
+  /**
+   * Where games are recorded, or null
+   */
+  private GameRecordWriter recorder;
+  
+  /**
+   * The loop playing the game, and the snapshot of it the piles show
+   */
+  private GameLoop          loop;
+  private GameLoop.Snapshot shown;
+  
+  /**
+   * Whether a snapshot is waiting to be applied on the event dispatch thread
+   */
+  private final AtomicBoolean applyQueued = new AtomicBoolean();
+  
+  /**
+   * Whether the snapshots the loop publishes are applied; not until the panel is built
+   */
+  private volatile boolean applySnapshots;
+  
+  /**
+   * Closes the record file when the program exits, or null
+   */
+  private Thread recorderHook;
+  
+  /**
+   * Finds hints, once the first is asked for
+   */
+  private HintEngine hints;
+  
+  /**
+   * The outlines of the cards the hint moves and of where it moves them, or null
+   */
+  private Rectangle hintFrom, hintTo;
+  
+  /**
+   * The sequence number of the drop whose cards selectedPile still shows, or 0
+   */
+  private long pendingDrop;
+  
+  /**
+   * The input time of the last snapshot applied, until a frame showing it is painted, or 0
+   */
+  private long unpaintedInput;
+  
+  /**
+   * The card objects shown for each CardId
+   */
+  private Card[] cards;
+  
   /**
    * The selected Pile is always drawn last (so it is on top of everything else)
    */
-  public Pile selectedPile;
+  private Pile selectedPile;
+  
+  /**
+   * The union of every area marked dirty since the last repaintDirty, or null
+   */
+  private Rectangle dirty;
+  
+  /**
+   * The background and the pile outlines, rendered at backgroundScale
+   */
+  private BufferedImage background;
+  private double        backgroundScale;
+  
+  private final FrameTimer frameTimer = new FrameTimer();
+  private final boolean    printFrameStats = Boolean.getBoolean(FRAME_STATS_PROPERTY);
   
   /**
    * No-arg constructor for a game panel. Adds mouse listeners and initializes deck and piles
    */
   public GamePanel() {
     setBackground(new Color(0, 200, 0));
-    deck         = new Deck();
+    Long seed    = Long.getLong(SEED_PROPERTY);
+    if (seed == null) {
+      seed       = pooledSeed(System.getProperty(DEAL_POOL_PROPERTY));
+    }
+    deck         = (seed != null) ? new Deck(seed) : new Deck();
+    deck.setCountShown(Boolean.getBoolean(STOCK_COUNT_PROPERTY));
+    openRecorder(System.getProperty(RECORD_PROPERTY));
+    loop         = new GameLoop(new GameLoop.Listener() {
+      public void snapshotPublished() {
+        queueApply();
+      }
+    }, recorder);
+    loop.setAutoPlay(!"false".equals(System.getProperty(AUTO_PLAY_PROPERTY)));
     mainPiles    = new Pile[7];
     suitPiles    = new Pile[4];
     setInitialLayout(deck);
-    deckPile     = new Pile(deck.getX() + Card.WIDTH + GamePanel.HORI_DISPL, deck.getY(), Pile.DECK_PILE);
     selectedPile = null;
     CardListener listener = new CardListener(this);
     this.addMouseListener(listener);
     this.addMouseMotionListener(listener);
     this.setFocusable(true);
+    Metrics.register();
+    bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo", new AbstractAction() {
+      public void actionPerformed(ActionEvent e) {
+        undo();
+      }
+    });
+    bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo", new AbstractAction() {
+      public void actionPerformed(ActionEvent e) {
+        redo();
+      }
+    });
+    bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_H, 0), "hint", new AbstractAction() {
+      public void actionPerformed(ActionEvent e) {
+        requestHint();
+      }
+    });
+    setApplySnapshots(true);
+  }
+  
+  /**
+   * Takes a winnable deal from the pool kept in file, opening the pool the first time. Never
+   * waits for a deal to be solved.
+   * @param file the name of the pool file, or null
+   * @return the deal number, or null if there is no pool or it is empty
+   */
+  private static synchronized Long pooledSeed(String file) {
+    if (file == null) {
+      return null;
+    }
+    if (dealPool == null) {
+      dealPool = new DealPool(Paths.get(file));
+    }
+    return dealPool.poll();
+  }
+  
+  /**
+   * Opens the record file, if there is one, and closes it when the program exits. The game
+   * is played whether or not the file can be opened.
+   * @param file the name of the record file, or null
+   */
+  private void openRecorder(String file) {
+    if (file == null)
+      return;
+    try {
+      recorder = new GameRecordWriter(Paths.get(file));
+    } catch (IOException | IllegalArgumentException e) {
+      System.err.println("not recording games to " + file + ": " + e);
+      return;
+    }
+    
+    recorderHook = new Thread() {
+      public void run() {
+        closeRecorder();
+      }
+    };
+    Runtime.getRuntime().addShutdownHook(recorderHook);
+  }
+  
+  /**
+   * Ends the game being recorded, if there is one, and closes the record file
+   */
+  private void closeRecorder() {
+    try {
+      recorder.close();
+    } catch (IOException e) {
+      System.err.println("could not finish recording the game: " + e);
+    }
+  }
+  
+  /**
+   * Stops the panel's game loop and hint engine threads and closes its record file, if there
+   * is one. The panel cannot be played afterwards.
+   */
+  public void dispose() {
+    applySnapshots = false;
+    loop.shutdown();
+    if (hints != null) {
+      hints.shutdown();
+    }
+    if (recorder != null) {
+      Runtime.getRuntime().removeShutdownHook(recorderHook);
+      closeRecorder();
+    }
+  }
+  
+  /**
+   * Turns applying the snapshots the loop publishes on or off. While it is off the piles only
+   * change on the thread calling setInitialLayout, setGameState or sync, so a benchmark can
+   * drive the panel from its own thread without racing the event dispatch thread.
+   */
+  public void setApplySnapshots(boolean on) {
+    applySnapshots = on;
+    queueApply();
+  }
+  
+  /**
+   * Applies the latest snapshot on the event dispatch thread, unless that is already queued
+   */
+  private void queueApply() {
+    if (applySnapshots && applyQueued.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(applySnapshot);
+    }
+  }
+  
+  /**
+   * Applies the latest snapshot the loop has published, on the event dispatch thread
+   */
+  private final Runnable applySnapshot = new Runnable() {
+    public void run() {
+      applyQueued.set(false);
+      if (applySnapshots) {
+        show(loop.getSnapshot());
+        repaintDirty();
+      }
+    }
+  };
+  
+  /**
+   * Moves the cards to match snap, unless a later snapshot is already shown. The cards of a
+   * drop stay where they were dropped until the snapshot that includes the drop is shown.
+   */
+  private void show(GameLoop.Snapshot snap) {
+    if (shown != null && snap.getSeq() <= shown.getSeq())
+      return;
+    // piles the new board shares with the one shown are already right, unless cards were
+    // lifted off one for a drop
+    Board previous = (shown != null) ? shown.getBoard() : null;
+    shown = snap;
+    if (previous != snap.getBoard()) {
+      clearHint();
+    }
+    if (pendingDrop != 0 && snap.getSeq() >= pendingDrop) {
+      markDirty(selectedPile.getBounds());
+      selectedPile = null;
+      pendingDrop  = 0;
+      previous     = null;
+    }
+    updatePiles(previous);
+    unpaintedInput = snap.getInputNanos();
+  }
+  
+  /**
+   * Runs action whenever key is pressed while the panel's window is focused
+   */
+  private void bindKey(KeyStroke key, String name, AbstractAction action) {
+    getInputMap(WHEN_IN_FOCUSED_WINDOW).put(key, name);
+    getActionMap().put(name, action);
   }
   
   /**
@@ -82,20 +389,127 @@ public class GamePanel extends JPanel {
    * @param g the graphics context to paint on
    */
   protected void paintComponent(Graphics g) {
-    super.paintComponent(g);
-    // draw all piles and the remaining cards left in the deck
+    long start = System.nanoTime();
+    // high-DPI displays paint through a scaled graphics context
+    double scale = (g instanceof Graphics2D) ? ((Graphics2D)g).getTransform().getScaleX() : 1;
+    CardSprites.forScale(scale);
+    if (background == null || backgroundScale != scale ||
+        background.getWidth() != (int)Math.ceil(getWidth() * scale) ||
+        background.getHeight() != (int)Math.ceil(getHeight() * scale)) {
+      renderBackground(scale);
+    }
+    if (scale == 1 || !(g instanceof Graphics2D)) {
+      g.drawImage(background, 0, 0, null);
+    } else {
+      CardSprites.blit((Graphics2D)g, background, scale, 0, 0, 0, 0, background.getWidth(), background.getHeight());
+    }
+    
+    Rectangle clip = g.getClipBounds();
+    // draw the piles and the remaining cards left in the deck that overlap the clip
     for (int i = 0; i < mainPiles.length; i++) {
-      mainPiles[i].draw(g);
+      drawIfVisible(g, clip, mainPiles[i]);
     }
     for (int i = 0; i < suitPiles.length; i++) {
-      suitPiles[i].draw(g);
+      drawIfVisible(g, clip, suitPiles[i]);
+    }
+    drawIfVisible(g, clip, deckPile);
+    if (clip == null || deck.getBounds().intersects(clip)) {
+      deck.draw(g);
+    }
+    
+    if (hintFrom != null) {
+      g.setColor(Color.yellow);
+      drawOutline(g, hintFrom);
+      drawOutline(g, hintTo);
     }
-    deckPile.draw(g);
-    deck.draw(g);
     
     if (selectedPile != null) {
-      selectedPile.draw(g);
+      drawIfVisible(g, clip, selectedPile);
+    }
+    
+    long end = System.nanoTime(), nanos = end - start;
+    frameTimer.record(nanos);
+    Metrics.framePainted(nanos);
+    if (unpaintedInput != 0) {
+      Metrics.INPUT_TO_PAINT.record(end - unpaintedInput);
+      unpaintedInput = 0;
+    }
+    if (printFrameStats && frameTimer.getFrames() == FRAME_STATS_INTERVAL) {
+      System.err.println(frameTimer);
+      frameTimer.reset();
+    }
+  }
+  
+  /**
+   * Renders the background layer at the panel's current size
+   * @param scale the number of device pixels per panel pixel
+   */
+  private void renderBackground(double scale) {
+    int w = Math.max(1, getWidth()), h = Math.max(1, getHeight());
+    background = CardSprites.createImage((int)Math.ceil(w * scale), (int)Math.ceil(h * scale),
+                                         Transparency.OPAQUE);
+    backgroundScale = scale;
+    
+    Graphics2D g = background.createGraphics();
+    g.scale(scale, scale);
+    g.setColor(getBackground());
+    g.fillRect(0, 0, w, h);
+    for (int i = 0; i < mainPiles.length; i++) {
+      mainPiles[i].drawOutline(g);
+    }
+    for (int i = 0; i < suitPiles.length; i++) {
+      suitPiles[i].drawOutline(g);
     }
+    g.dispose();
+  }
+  
+  /**
+   * Draws p if it overlaps clip
+   * @param clip the area being painted, or null for everything
+   */
+  private static void drawIfVisible(Graphics g, Rectangle clip, Pile p) {
+    if (clip == null || p.getBounds().intersects(clip)) {
+      p.draw(g);
+    }
+  }
+  
+  /**
+   * Draws a thick rounded outline just inside r
+   */
+  private static void drawOutline(Graphics g, Rectangle r) {
+    for (int i = 0; i < 3; i++) {
+      g.drawRoundRect(r.x + i, r.y + i, r.width - 1 - 2 * i, r.height - 1 - 2 * i, 10, 10);
+    }
+  }
+  
+  /**
+   * Adds r to the area to repaint at the next repaintDirty
+   * @param r the area that changed
+   */
+  public void markDirty(Rectangle r) {
+    Metrics.dirtyMarked();
+    if (dirty == null)
+      dirty = new Rectangle(r);
+    else
+      dirty.add(r);
+  }
+  
+  /**
+   * Repaints the area marked dirty since the last call, if any
+   */
+  public void repaintDirty() {
+    if (dirty != null) {
+      repaint(dirty);
+      Metrics.repaintRequested();
+      dirty = null;
+    }
+  }
+  
+  /**
+   * @return the times of the frames painted so far
+   */
+  public FrameTimer getFrameTimer() {
+    return frameTimer;
   }
   
   /**
@@ -106,17 +520,21 @@ public class GamePanel extends JPanel {
   }
   
   /**
-   * Sets the location of all cards to their starting points
+   * Deals the cards of d and sets the location of all cards to their starting points
    */
   public void setInitialLayout(Deck d) {
-    int cardNum = 0;
+    cards = new Card[GameState.CARDS];
+    byte[] order = new byte[GameState.CARDS];
+    for (int i = 0; i < d.size(); i++) {
+      Card c = d.getCardAt(i);
+      int n  = c.getId();
+      cards[n] = c;
+      order[i] = (byte)n;
+    }
+    cancelHint();
+    
     for (int i = 0; i < mainPiles.length; i++) {
       mainPiles[i] = new Pile(MAIN_PILE_X_LOCS[i], MAIN_PILE_Y_LOC, Pile.MAIN_PILE);
-      for (int j = 0; j <= i; j++) {
-        mainPiles[i].addToPile(d.getCardAt(cardNum));
-        if (j == i) d.getCardAt(cardNum).faceDown = false;
-        d.removeCardAt(cardNum);
-      }
     }
     
     for (int i = 0; i < Card.SUITS.length; i++) {
@@ -124,6 +542,347 @@ public class GamePanel extends JPanel {
     }
     
     deck.setLocation(HORI_DISPL, SUIT_PILE_Y_LOC);
+    deckPile = new Pile(deck.getX() + Card.WIDTH + GamePanel.HORI_DISPL, deck.getY(), Pile.DECK_PILE);
+    hitIndex = new HitIndex(mainPiles, suitPiles, deckPile);
+    selectedPile = null;
+    pendingDrop  = 0;
+    shown        = null;
+    // the loop plays a copy of the deal, so the piles can show it without waiting
+    GameState s = GameState.deal(order);
+    long seq    = loop.reset(s, true, d.getSeed());
+    show(new GameLoop.Snapshot(Board.of(s), seq, System.nanoTime()));
+  }
+  
+  /**
+   * Puts every card in the pile the shown snapshot has it in, facing the way it has it facing.
+   * Piles that already match the snapshot are left alone; the old and new bounds of the others
+   * are marked dirty.
+   */
+  public void updatePiles() {
+    updatePiles(null);
+  }
+  
+  /**
+   * Updates the piles to match the shown snapshot, skipping every pile its board shares with
+   * unchanged without comparing a single card
+   * @param unchanged a board the piles already match, or null
+   */
+  private void updatePiles(Board unchanged) {
+    Board b = shown.getBoard();
+    for (int i = 0; i < mainPiles.length; i++) {
+      if (!b.samePile(unchanged, GameState.TABLEAU + i)) {
+        fillPile(mainPiles[i], GameState.TABLEAU + i);
+      }
+    }
+    for (int i = 0; i < suitPiles.length; i++) {
+      if (!b.samePile(unchanged, GameState.FOUNDATION + i)) {
+        fillPile(suitPiles[i], GameState.FOUNDATION + i);
+      }
+    }
+    if (!b.samePile(unchanged, GameState.WASTE)) {
+      fillPile(deckPile, GameState.WASTE);
+    }
+    
+    if (b.samePile(unchanged, GameState.STOCK) || deckMatches(b))
+      return;
+    markDirty(deck.getBounds());
+    deck.clear();
+    for (int i = 0; i < b.size(GameState.STOCK); i++) {
+      Card c = cards[b.cardAt(GameState.STOCK, i)];
+      c.faceDown = true;
+      deck.addToDeck(c);
+    }
+  }
+  
+  /**
+   * @return whether the deck holds the cards of the stock of s
+   */
+  private boolean deckMatches(Board s) {
+    if (deck.size() != s.size(GameState.STOCK))
+      return false;
+    for (int i = 0; i < deck.size(); i++) {
+      if (deck.getCardAt(i).getId() != s.cardAt(GameState.STOCK, i))
+        return false;
+    }
+    
+    return true;
+  }
+  
+  /**
+   * Replaces the cards of p with the cards of the shown snapshot's pile number pile
+   * @param p the pile to fill
+   * @param pile the engine's pile number
+   */
+  private void fillPile(Pile p, int pile) {
+    Board s = shown.getBoard();
+    if (pileMatches(p, s, pile))
+      return;
+    
+    long start = System.nanoTime();
+    markDirty(p.getBounds());
+    p.clear();
+    for (int i = 0; i < s.size(pile); i++) {
+      Card c = cards[s.cardAt(pile, i)];
+      c.faceDown = !s.isFaceUp(pile, i);
+      p.addToPile(c);
+    }
+    markDirty(p.getBounds());
+    Metrics.PILE_UPDATES.record(System.nanoTime() - start);
+  }
+  
+  /**
+   * @return whether p holds the cards of the engine's pile number pile of s, facing the same way
+   */
+  private static boolean pileMatches(Pile p, Board s, int pile) {
+    if (p.size() != s.size(pile))
+      return false;
+    for (int i = 0; i < p.size(); i++) {
+      Card c = p.getCardAt(i);
+      if (c.getId() != s.cardAt(pile, i) || c.faceDown == s.isFaceUp(pile, i))
+        return false;
+    }
+    
+    return true;
+  }
+  
+  /**
+   * Reads the position shown by the piles and the deck into a new GameState
+   * @return the position
+   * @throws IllegalStateException if a face-down card sits on a face-up card of a main pile,
+   *         or a pile holds more cards than any real position could
+   */
+  public GameState toGameState() {
+    GameState s = new GameState();
+    for (int i = 0; i < mainPiles.length; i++) {
+      readPile(s, mainPiles[i], GameState.TABLEAU + i);
+    }
+    for (int i = 0; i < suitPiles.length; i++) {
+      readPile(s, suitPiles[i], GameState.FOUNDATION + i);
+    }
+    readPile(s, deckPile, GameState.WASTE);
+    
+    if (deck.size() > GameState.capacity(GameState.STOCK))
+      throw new IllegalStateException("the deck has too many cards: " + deck.size());
+    for (int i = 0; i < deck.size(); i++) {
+      s.push(GameState.STOCK, deck.getCardAt(i).getId());
+    }
+    
+    return s;
+  }
+  
+  /**
+   * Copies the cards of p into the engine's pile number pile of s
+   */
+  private static void readPile(GameState s, Pile p, int pile) {
+    if (p.size() > GameState.capacity(pile))
+      throw new IllegalStateException("pile " + pile + " has too many cards: " + p.size());
+    
+    int faceDown = 0;
+    for (int i = 0; i < p.size(); i++) {
+      Card c = p.getCardAt(i);
+      if (c.faceDown) {
+        if (faceDown != i || !GameState.isTableau(pile))
+          throw new IllegalStateException("pile " + pile + " has a face-down card at " + i);
+        faceDown++;
+      }
+      s.push(pile, c.getId());
+    }
+    if (GameState.isTableau(pile))
+      s.setFaceDownCount(pile, faceDown);
+  }
+  
+  /**
+   * Replaces the game being played with a copy of s and moves the cards to match it
+   * @param s the position to play from now on
+   */
+  public void setGameState(GameState s) {
+    cancelHint();
+    GameState copy = s.copy();
+    long seq = loop.reset(copy, false, 0);
+    if (pendingDrop != 0) {
+      markDirty(selectedPile.getBounds());
+      selectedPile = null;
+      pendingDrop  = 0;
+    }
+    show(new GameLoop.Snapshot(Board.of(copy), seq, System.nanoTime()));
+    repaintDirty();
+  }
+  
+  /**
+   * Asks for a hint for the position shown, which is outlined once it is found, unless the
+   * player has moved by then
+   */
+  public void requestHint() {
+    if (selectedPile != null) {
+      return;
+    }
+    if (hints == null) {
+      hints = new HintEngine();
+    }
+    hints.request(shown.getBoard(), new HintEngine.Listener() {
+      public void hintFound(final Board board, final Move hint, boolean winning) {
+        SwingUtilities.invokeLater(new Runnable() {
+          public void run() {
+            if (hint != null && selectedPile == null && board == shown.getBoard() && isSettled()) {
+              showHint(hint);
+              repaintDirty();
+            }
+          }
+        });
+      }
+    });
+  }
+  
+  /**
+   * Outlines the cards hint moves and where it moves them
+   */
+  private void showHint(Move hint) {
+    clearHint();
+    if (hint.isDeckClick()) {
+      hintFrom = deck.getBounds();
+      hintTo   = deck.getBounds();
+    } else {
+      Pile from = getPile(hint.getFrom()), to = getPile(hint.getTo());
+      hintFrom = topCardsBounds(from, hint.getCount());
+      hintTo   = to.isEmpty() ? to.getBounds() : topCardsBounds(to, 1);
+    }
+    markDirty(hintFrom);
+    markDirty(hintTo);
+  }
+  
+  /**
+   * @return the bounds of the top count cards of p
+   */
+  private static Rectangle topCardsBounds(Pile p, int count) {
+    Rectangle r = p.getBounds();
+    if (p.getType() == Pile.DECK_PILE) {
+      // the top card of the deck pile is the rightmost one shown
+      return new Rectangle(r.x + r.width - Card.WIDTH - 1, r.y, Card.WIDTH + 1, Card.HEIGHT + 1);
+    }
+    if (p.getType() == Pile.SUIT_PILE) {
+      return r;
+    }
+    Card first = p.getCardAt(p.size() - count);
+    return new Rectangle(first.getX(), first.getY(), Card.WIDTH + 1, r.y + r.height - first.getY());
+  }
+  
+  /**
+   * Stops looking for a hint and removes the one shown, if any
+   */
+  public void cancelHint() {
+    if (hints != null) {
+      hints.cancel();
+    }
+    clearHint();
+  }
+  
+  private void clearHint() {
+    if (hintFrom != null) {
+      markDirty(hintFrom);
+      markDirty(hintTo);
+      hintFrom = null;
+      hintTo   = null;
+    }
+  }
+  
+  /**
+   * Asks the loop to click the stock; the piles change once it has
+   * @param inputNanos the System.nanoTime the input arrived at
+   */
+  public void clickStock(long inputNanos) {
+    cancelHint();
+    loop.clickStock(inputNanos);
+  }
+  
+  /**
+   * Asks the loop to drop the selected cards on the first of targets that takes them. They
+   * stay where they are until the snapshot that includes the drop is shown.
+   * @param from the engine's pile number the cards were lifted from
+   * @param targets the engine's pile numbers to try, best first
+   * @param n the number of targets
+   * @param inputNanos the System.nanoTime the input arrived at
+   */
+  public void drop(int from, int[] targets, int n, long inputNanos) {
+    cancelHint();
+    pendingDrop = loop.drop(from, selectedPile.size(), targets, n, inputNanos);
+  }
+  
+  /**
+   * Asks the loop to take back the last move, unless cards are being dragged
+   */
+  public void undo() {
+    if (selectedPile == null) {
+      cancelHint();
+      loop.undo(System.nanoTime());
+    }
+  }
+  
+  /**
+   * Asks the loop to play again the last move taken back, unless cards are being dragged
+   */
+  public void redo() {
+    if (selectedPile == null) {
+      cancelHint();
+      loop.redo(System.nanoTime());
+    }
+  }
+  
+  /**
+   * @return whether the piles show every input handed to the loop, so cards can be picked up
+   */
+  public boolean isSettled() {
+    return pendingDrop == 0 && shown.getSeq() == loop.getSubmitted();
+  }
+  
+  /**
+   * Waits for the loop to handle every input handed to it, and shows the result. For tests and
+   * benchmarks; the game itself never waits.
+   */
+  public void sync() {
+    show(loop.await());
+    repaintDirty();
+  }
+  
+  /**
+   * @return the cards being dragged, or still showing where they were dropped, or null
+   */
+  public Pile getSelectedPile() {
+    return selectedPile;
+  }
+  
+  /**
+   * Picks up the cards of p to drag them, or puts down the cards picked up if p is null
+   * @param p the cards lifted off their pile, or null
+   */
+  public void setSelectedPile(Pile p) {
+    if (p != null) {
+      cancelHint();
+    }
+    selectedPile = p;
+  }
+  
+  /**
+   * Returns the latest position the game loop has published. Unlike the piles, which only the
+   * event dispatch thread may touch, the board can be read on any thread, without locking,
+   * while the player is dragging cards or the game is changing.
+   * @return the board
+   */
+  public Board getBoard() {
+    return loop.getSnapshot().getBoard();
+  }
+  
+  /**
+   * @return the loop playing the game
+   */
+  public GameLoop getGameLoop() {
+    return loop;
+  }
+  
+  /**
+   * @return the snapshot of the game the piles show
+   */
+  public GameLoop.Snapshot getShownSnapshot() {
+    return shown;
   }
   
   /**
@@ -147,5 +906,26 @@ public class GamePanel extends JPanel {
   public Pile getDeckPile() {
     return deckPile;
   }
+  
+  /**
+   * Returns the pile showing the engine's pile number pile
+   * @param pile the engine's pile number
+   * @return the pile, or null for the stock, which the deck shows
+   */
+  public Pile getPile(int pile) {
+    if (GameState.isTableau(pile))
+      return mainPiles[pile - GameState.TABLEAU];
+    if (GameState.isFoundation(pile))
+      return suitPiles[pile - GameState.FOUNDATION];
+    
+    return (pile == GameState.WASTE) ? deckPile : null;
+  }
+  
+  /**
+   * @return the index that finds the pile and card under a point
+   */
+  public HitIndex getHitIndex() {
+    return hitIndex;
+  }
 
 }
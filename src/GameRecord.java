@@ -0,0 +1,126 @@
+/**
+ * GameRecord.java
+ * The binary format games are recorded in, for replaying and analysing them later. A record
+ * file is a FILE_HEADER_SIZE byte header followed by any number of games, one after another.
+ *
+ * File header (big-endian): MAGIC (4 bytes), VERSION (2 bytes), 2 bytes reserved (zero).
+ *
+ * Each game is the deal number it was dealt from (see Deal; 8 bytes, big-endian), its rule
+ * variant (1 byte: the number of cards a draw turns over, Engine.DRAW_COUNT), then one token
+ * per action the player took, ending with END. Tokens are unsigned LEB128 varints: 7 bits a
+ * byte, low bits first, the high bit set on every byte but the last.
+ *
+ *   END      the game is over (no more tokens follow)
+ *   UNDO     the last move in effect was taken back
+ *   REDO     the last move taken back was played again
+ *   DRAW     the stock was clicked
+ *   RECYCLE  the empty stock was clicked, turning the waste back over
+ *   FIRST_MOVE + (count - 1) * PAIRS + pair(from, to)
+ *            count cards moved from pile from to pile to
+ *
+ * There are PAIRS pairs of piles a card can be moved between (from a main pile, suit pile or
+ * the waste to a different main or suit pile), so every single card move, and every token
+ * but a long run of cards, fits in one byte; a typical game takes a byte or so a move.
+ *
+ * Only legal moves are recorded, so a game replays exactly by playing its tokens on a
+ * MoveHistory. A game cut short (by a crash, say) simply ends at the end of the file.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class GameRecord {
+
+  public static final int MAGIC            = 0x534F4C47; // "SOLG"
+  public static final int VERSION          = 1;
+  public static final int FILE_HEADER_SIZE = 8;
+
+  /**
+   * The size of the header of each game: the deal number and the rule variant
+   */
+  public static final int GAME_HEADER_SIZE = 9;
+
+  public static final int END = 0, UNDO = 1, REDO = 2, DRAW = 3, RECYCLE = 4, FIRST_MOVE = 5;
+
+  /**
+   * The number of pairs of piles cards can be moved between
+   */
+  public static final int PAIRS = 11 * 12 - 11;
+
+  /**
+   * One more than the largest token
+   */
+  public static final int TOKENS = FIRST_MOVE + Move.MAX_COUNT * PAIRS;
+
+  /**
+   * The most bytes a token takes
+   */
+  public static final int MAX_TOKEN_BYTES = 2;
+
+  /**
+   * The pair number of each from * PILES + to, or -1; and the move of each token, or null
+   */
+  private static final int[]  PAIR  = new int[GameState.PILES * GameState.PILES];
+  private static final Move[] MOVES = new Move[TOKENS];
+  static {
+    int pair = 0;
+    for (int from = 0; from < GameState.PILES; from++) {
+      for (int to = 0; to < GameState.PILES; to++) {
+        boolean movable = from != GameState.STOCK && from != to &&
+                          (GameState.isTableau(to) || GameState.isFoundation(to));
+        PAIR[from * GameState.PILES + to] = movable ? pair++ : -1;
+      }
+    }
+    MOVES[DRAW]    = Move.DRAW;
+    MOVES[RECYCLE] = Move.RECYCLE;
+    for (int from = 0; from < GameState.PILES; from++)
+      for (int to = 0; to < GameState.PILES; to++)
+        for (int count = 1; count <= Move.MAX_COUNT; count++)
+          if (PAIR[from * GameState.PILES + to] >= 0)
+            MOVES[token(Move.of(from, to, count))] = Move.of(from, to, count);
+  }
+
+  private GameRecord() {
+  }
+
+  /**
+   * @param m a move between two piles, DRAW or RECYCLE
+   * @return the token of m
+   * @throws IllegalArgumentException if no legal move could ever be m
+   */
+  public static int token(Move m) {
+    if (m == Move.DRAW)
+      return DRAW;
+    if (m == Move.RECYCLE)
+      return RECYCLE;
+
+    int pair = PAIR[m.getFrom() * GameState.PILES + m.getTo()];
+    if (pair < 0)
+      throw new IllegalArgumentException("cards cannot be moved from " + m.getFrom() + " to " + m.getTo());
+    return FIRST_MOVE + (m.getCount() - 1) * PAIRS + pair;
+  }
+
+  /**
+   * @param token a token read from a record
+   * @return the move of the token, or null if it is not a move (END, UNDO, REDO or no token
+   *         at all)
+   */
+  public static Move move(int token) {
+    return (token >= 0 && token < TOKENS) ? MOVES[token] : null;
+  }
+
+  /**
+   * Writes a token as a varint
+   * @param b where to write it, with room for MAX_TOKEN_BYTES
+   * @param i the index to write it at
+   * @return the index after it
+   */
+  static int putToken(byte[] b, int i, int token) {
+    while (token >= 0x80) {
+      b[i++] = (byte)(token | 0x80);
+      token >>>= 7;
+    }
+    b[i++] = (byte)token;
+    return i;
+  }
+
+}
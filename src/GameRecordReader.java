@@ -0,0 +1,194 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GameRecordReader.java
+ * Reads the games of a record file (see GameRecord) one token at a time, straight out of the
+ * file's pages: the file is memory-mapped, and reading allocates nothing, so millions of
+ * games can be replayed at the speed the tokens can be decoded.
+ *
+ *   GameRecordReader r = GameRecordReader.open(file);
+ *   while (r.nextGame()) {
+ *     ... r.getSeed(), r.getVariant() ...
+ *     for (int t; (t = r.nextToken()) != GameRecord.END; ) {
+ *       ... GameRecord.move(t), or UNDO or REDO ...
+ *     }
+ *   }
+ *
+ * A game cut short by the end of the file ends there; isComplete tells whether it was ended
+ * properly. A reader is used by one thread at a time.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class GameRecordReader {
+
+  /**
+   * What nextToken returns for a varint longer than any token
+   */
+  public static final int MALFORMED = -1;
+
+  private final ByteBuffer in;
+  private final int        limit;
+
+  private int     position;
+  private int     end;
+  private int     gameStart;
+  private boolean inGame;
+  private boolean complete = true;
+  private long    seed;
+  private int     variant;
+
+  /**
+   * Constructs a reader over the bytes of a record file, from in's position to its limit
+   * @throws IllegalArgumentException if they do not start with a record file header
+   */
+  public GameRecordReader(ByteBuffer in) {
+    this.in  = in;
+    position = in.position();
+    limit    = in.limit();
+    if (limit - position < GameRecord.FILE_HEADER_SIZE || in.getInt(position) != GameRecord.MAGIC ||
+        in.getShort(position + 4) != GameRecord.VERSION)
+      throw new IllegalArgumentException("not a game record file");
+
+    position += GameRecord.FILE_HEADER_SIZE;
+    end = position;
+  }
+
+  /**
+   * Maps a record file into memory and constructs a reader over it
+   * @param file the record file, which must be smaller than 2 GB
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if it is not a record file, or is too big to map
+   */
+  public static GameRecordReader open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE)
+        throw new IllegalArgumentException(file + " is too big to map; start a new record file every 2 GB");
+
+      return new GameRecordReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Moves to the next game, skipping what is left of the current one
+   * @return whether there was another game
+   */
+  public boolean nextGame() {
+    while (inGame)
+      nextToken();
+    if (limit - position < GameRecord.GAME_HEADER_SIZE)
+      return false;
+
+    gameStart = position;
+    seed      = in.getLong(position);
+    variant   = in.get(position + 8) & 0xFF;
+    position += GameRecord.GAME_HEADER_SIZE;
+    end       = position;
+    inGame    = true;
+    complete  = false;
+    return true;
+  }
+
+  /**
+   * Reads the next token of the current game
+   * @return the token, MALFORMED, or END at the end of the game (and from then on)
+   */
+  public int nextToken() {
+    if (!inGame)
+      return GameRecord.END;
+
+    int token = 0;
+    for (int i = 0, shift = 0; position < limit; i++, shift += 7) {
+      int b = in.get(position++);
+      if (i < GameRecord.MAX_TOKEN_BYTES)
+        token |= (b & 0x7F) << shift;
+      if (b >= 0) { // the last byte of the varint
+        end = position;
+        if (i >= GameRecord.MAX_TOKEN_BYTES)
+          return MALFORMED;
+        if (token == GameRecord.END) {
+          inGame   = false;
+          complete = true;
+        }
+        return token;
+      }
+    }
+
+    // the file ends in the middle of the game
+    position = limit;
+    inGame   = false;
+    return GameRecord.END;
+  }
+
+  /**
+   * @return the deal number the current game was dealt from
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * @return the rule variant of the current game: the number of cards a draw turns over
+   */
+  public int getVariant() {
+    return variant;
+  }
+
+  /**
+   * @return the offset in the file of the header of the current game
+   */
+  public int getGameStart() {
+    return gameStart;
+  }
+
+  /**
+   * @return the offset just past the last whole token or game header read
+   */
+  public int getEnd() {
+    return end;
+  }
+
+  /**
+   * @return whether the last game read to its end was ended with END, rather than cut short
+   *         by the end of the file
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Prints the games of a record file as text, one line per game: the deal number, the rule
+   * variant, whether the game was ended properly, and its actions
+   * @param file the record file
+   * @param out where to print
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if it is not a record file
+   */
+  public static void print(Path file, PrintStream out) throws IOException {
+    GameRecordReader r = open(file);
+    StringBuilder actions = new StringBuilder();
+    out.println("seed\tvariant\tstatus\tactions");
+    while (r.nextGame()) {
+      actions.setLength(0);
+      for (int t; (t = r.nextToken()) != GameRecord.END; ) {
+        if (actions.length() > 0)
+          actions.append(", ");
+        if (t == GameRecord.UNDO)
+          actions.append("undo");
+        else if (t == GameRecord.REDO)
+          actions.append("redo");
+        else if (GameRecord.move(t) != null)
+          actions.append(GameRecord.move(t));
+        else
+          actions.append("bad token ").append(t);
+      }
+      out.printf("%d\t%d\t%s\t%s%n", r.getSeed(), r.getVariant(), r.isComplete() ? "ended" : "cut short", actions);
+    }
+  }
+
+}
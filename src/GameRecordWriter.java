@@ -0,0 +1,165 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GameRecordWriter.java
+ * Appends games to a record file in the GameRecord format as they are played: beginGame, then
+ * one call per action, then endGame. Tokens are gathered in a buffer and written when it fills
+ * up or on flush, so recording a move costs a couple of array stores.
+ *
+ * Opening a file that already holds games appends to it. If the last game was cut short (the
+ * program was killed mid-game) it is ended first, and any partly written token or game header
+ * is cut off, so every game in the file stays readable.
+ *
+ * The methods are synchronized, so a game played on the event dispatch thread can be ended
+ * and the file closed from a shutdown hook.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class GameRecordWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final FileChannel out;
+  private final byte[]      buffer = new byte[BUFFER_SIZE];
+  private int               length;
+  private boolean           inGame;
+
+  /**
+   * Opens a record file for appending, creating it if it does not exist
+   * @param file the record file
+   * @throws IOException if the file cannot be opened
+   * @throws IllegalArgumentException if it is not a record file
+   */
+  public GameRecordWriter(Path file) throws IOException {
+    out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      if (out.size() == 0) {
+        ByteBuffer header = ByteBuffer.allocate(GameRecord.FILE_HEADER_SIZE);
+        header.putInt(GameRecord.MAGIC).putShort((short)GameRecord.VERSION).putShort((short)0);
+        header.flip();
+        while (header.hasRemaining())
+          out.write(header);
+      } else {
+        repairTail();
+      }
+    } catch (IOException | RuntimeException e) {
+      out.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Cuts the file back to the end of its last whole token, and ends its last game if it was
+   * cut short
+   */
+  private void repairTail() throws IOException {
+    GameRecordReader r = new GameRecordReader(out.map(FileChannel.MapMode.READ_ONLY, 0, out.size()));
+    while (r.nextGame())
+      while (r.nextToken() != GameRecord.END) { }
+
+    if (r.getEnd() < out.size())
+      out.truncate(r.getEnd());
+    out.position(out.size());
+    if (!r.isComplete()) {
+      buffer[length++] = GameRecord.END;
+      write();
+    }
+  }
+
+  /**
+   * Starts recording a game, ending the one being recorded if there is one
+   * @param seed the deal number the game was dealt from
+   * @param variant the number of cards a draw turns over
+   */
+  public synchronized void beginGame(long seed, int variant) throws IOException {
+    endGame();
+    if (length + GameRecord.GAME_HEADER_SIZE > BUFFER_SIZE)
+      write();
+    for (int shift = 56; shift >= 0; shift -= 8)
+      buffer[length++] = (byte)(seed >>> shift);
+    buffer[length++] = (byte)variant;
+    inGame = true;
+  }
+
+  /**
+   * Records a move played in the current game
+   * @param m the move, which must have been legal
+   */
+  public synchronized void move(Move m) throws IOException {
+    token(GameRecord.token(m));
+  }
+
+  /**
+   * Records that the last move in effect was taken back
+   */
+  public synchronized void undo() throws IOException {
+    token(GameRecord.UNDO);
+  }
+
+  /**
+   * Records that the last move taken back was played again
+   */
+  public synchronized void redo() throws IOException {
+    token(GameRecord.REDO);
+  }
+
+  /**
+   * Ends the game being recorded, if there is one
+   */
+  public synchronized void endGame() throws IOException {
+    if (inGame) {
+      token(GameRecord.END);
+      inGame = false;
+    }
+  }
+
+  /**
+   * @return whether a game is being recorded
+   */
+  public synchronized boolean isInGame() {
+    return inGame;
+  }
+
+  private void token(int token) throws IOException {
+    if (!inGame)
+      throw new IllegalStateException("no game is being recorded");
+    if (length + GameRecord.MAX_TOKEN_BYTES > BUFFER_SIZE)
+      write();
+    length = GameRecord.putToken(buffer, length, token);
+  }
+
+  /**
+   * Writes everything recorded so far to the file
+   */
+  public synchronized void flush() throws IOException {
+    write();
+  }
+
+  /**
+   * Ends the game being recorded, if there is one, and closes the file
+   */
+  public synchronized void close() throws IOException {
+    if (!out.isOpen())
+      return;
+    try {
+      endGame();
+      write();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void write() throws IOException {
+    ByteBuffer b = ByteBuffer.wrap(buffer, 0, length);
+    while (b.hasRemaining())
+      out.write(b);
+    length = 0;
+  }
+
+}
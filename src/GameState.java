@@ -0,0 +1,325 @@
+import java.util.Arrays;
+
+/**
+ * GameState.java
+ * A headless Klondike position. Cards are identified by their CardId (0 to 51) and piles
+ * are identified by a number from 0 to 12:
+ *
+ *   0 - 6   the tableau (the seven main piles, left to right)
+ *   7 - 10  the foundations (the four suit piles, left to right)
+ *   11      the stock (the cards left in the deck, top card last)
+ *   12      the waste (the cards drawn from the deck, top card last)
+ *
+ * Within a pile, index 0 is the bottom card. Face-down cards are always at the bottom of a
+ * tableau pile, so only their number is kept. Stock cards are always face down and all other
+ * cards are always face up.
+ *
+ * The whole position is packed into a single fixed-size byte array (see SIZE): every pile has
+ * a fixed slice big enough for the most cards it can ever hold, followed by the pile sizes and
+ * the face-down counts. Copying a position is therefore one small array copy.
+ *
+ * Every position also carries a 64-bit Zobrist hash (see Zobrist) that is updated as cards
+ * move, so caches and solvers can key on getHash without rehashing the position.
+ *
+ * GameState does not know the rules of the game; see Engine.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class GameState {
+
+  /**
+   * Index of the first tableau pile and the number of tableau piles
+   */
+  public static final int TABLEAU = 0, TABLEAU_PILES = 7;
+
+  /**
+   * Index of the first foundation pile and the number of foundation piles
+   */
+  public static final int FOUNDATION = 7, FOUNDATION_PILES = 4;
+
+  /**
+   * Index of the stock and the waste
+   */
+  public static final int STOCK = 11, WASTE = 12;
+
+  /**
+   * The total number of piles
+   */
+  public static final int PILES = 13;
+
+  /**
+   * The number of suits and faces, the same as Card.SUITS.length and Card.FACES.length
+   */
+  public static final int SUITS = 4, FACES = 13;
+
+  /**
+   * The number of cards in a deck
+   */
+  public static final int CARDS = SUITS * FACES;
+
+  /**
+   * The cards dealt to the tableau that are not in the stock
+   */
+  private static final int DEALT = TABLEAU_PILES * (TABLEAU_PILES + 1) / 2;
+
+  /**
+   * The most cards each pile can hold: a tableau pile can have up to six face-down cards
+   * under a full king-to-ace run, and the stock and waste can hold every card not dealt
+   */
+  private static final int[] CAPACITY = new int[PILES];
+
+  /**
+   * Where each pile's slice starts in the packed array
+   */
+  private static final int[] OFFSET = new int[PILES];
+
+  /**
+   * Where the pile sizes and the tableau face-down counts start in the packed array
+   */
+  private static final int SIZES, FACE_DOWN;
+
+  /**
+   * The number of bytes a position takes
+   */
+  public static final int SIZE;
+
+  static {
+    int offset = 0;
+    for (int p = 0; p < PILES; p++) {
+      if (isTableau(p))
+        CAPACITY[p] = (TABLEAU_PILES - 1) + FACES;
+      else if (isFoundation(p))
+        CAPACITY[p] = FACES;
+      else
+        CAPACITY[p] = CARDS - DEALT;
+      OFFSET[p] = offset;
+      offset   += CAPACITY[p];
+    }
+    SIZES     = offset;
+    FACE_DOWN = SIZES + PILES;
+    SIZE      = FACE_DOWN + TABLEAU_PILES;
+  }
+
+  private final byte[] data;
+
+  /**
+   * The Zobrist hash of the position, kept up to date by every change to data
+   */
+  private long hash;
+
+  /**
+   * Constructs an empty position with no cards in any pile
+   */
+  public GameState() {
+    data = new byte[SIZE];
+  }
+
+  /**
+   * Deals a new game the same way GamePanel.setInitialLayout does: the first card of order
+   * goes to the first tableau pile, the next two to the second and so on, with only the last
+   * card of each tableau pile face up. The remaining 24 cards become the stock, with the last
+   * card of order on top.
+   * @param order the 52 card ids in deck order
+   * @return the dealt position
+   */
+  public static GameState deal(byte[] order) {
+    if (order.length != CARDS)
+      throw new IllegalArgumentException("a deal needs " + CARDS + " cards, got " + order.length);
+
+    GameState s = new GameState();
+    s.redeal(order);
+    return s;
+  }
+
+  /**
+   * Replaces this position with a new deal, laid out the way deal lays it out, without
+   * allocating
+   * @param order the 52 card ids in deck order
+   */
+  public void redeal(byte[] order) {
+    if (order.length != CARDS)
+      throw new IllegalArgumentException("a deal needs " + CARDS + " cards, got " + order.length);
+
+    Arrays.fill(data, (byte)0);
+    hash = 0;
+    int next = 0;
+    for (int i = 0; i < TABLEAU_PILES; i++) {
+      for (int j = 0; j <= i; j++)
+        push(TABLEAU + i, order[next++]);
+      setFaceDownCount(TABLEAU + i, i);
+    }
+    while (next < CARDS)
+      push(STOCK, order[next++]);
+  }
+
+  /**
+   * @return a copy of this position
+   */
+  public GameState copy() {
+    GameState s = new GameState();
+    s.copyFrom(this);
+    return s;
+  }
+
+  /**
+   * Makes this position the same as s
+   * @param s the position to copy
+   */
+  public void copyFrom(GameState s) {
+    System.arraycopy(s.data, 0, data, 0, SIZE);
+    hash = s.hash;
+  }
+
+  /**
+   * Returns the Zobrist hash of the position. Equal positions have equal hashes; positions
+   * that only differ in which suit pile each suit is built on are treated as equal.
+   * @return the hash
+   */
+  public long getHash() {
+    return hash;
+  }
+
+  /**
+   * @return the number of cards in pile p
+   */
+  public int size(int p) {
+    return data[SIZES + p];
+  }
+
+  /**
+   * @return whether pile p has no cards
+   */
+  public boolean isEmpty(int p) {
+    return data[SIZES + p] == 0;
+  }
+
+  /**
+   * @return the card at index i of pile p, where index 0 is the bottom of the pile
+   */
+  public int cardAt(int p, int i) {
+    return data[OFFSET[p] + i];
+  }
+
+  /**
+   * @return the top card of pile p or -1 if the pile is empty
+   */
+  public int topCard(int p) {
+    int size = data[SIZES + p];
+    return size == 0 ? -1 : data[OFFSET[p] + size - 1];
+  }
+
+  /**
+   * @return the number of face-down cards in pile p
+   */
+  public int faceDownCount(int p) {
+    if (isTableau(p))
+      return data[FACE_DOWN + p - TABLEAU];
+
+    return p == STOCK ? size(p) : 0;
+  }
+
+  /**
+   * @return whether the card at index i of pile p is face up
+   */
+  public boolean isFaceUp(int p, int i) {
+    return i >= faceDownCount(p);
+  }
+
+  /**
+   * @return whether every card is on a foundation
+   */
+  public boolean isWon() {
+    int total = 0;
+    for (int i = 0; i < FOUNDATION_PILES; i++)
+      total += size(FOUNDATION + i);
+
+    return total == CARDS;
+  }
+
+  /**
+   * @return the most cards pile p can hold
+   */
+  public static int capacity(int p) {
+    return CAPACITY[p];
+  }
+
+  /**
+   * @return whether p is one of the tableau piles
+   */
+  public static boolean isTableau(int p) {
+    return p >= TABLEAU && p < TABLEAU + TABLEAU_PILES;
+  }
+
+  /**
+   * @return whether p is one of the foundation piles
+   */
+  public static boolean isFoundation(int p) {
+    return p >= FOUNDATION && p < FOUNDATION + FOUNDATION_PILES;
+  }
+
+  /**
+   * Puts card c on top of pile p
+   */
+  void push(int p, int c) {
+    int i = data[SIZES + p]++;
+    data[OFFSET[p] + i] = (byte)c;
+    hash ^= Zobrist.cardKey(p, i, c);
+  }
+
+  /**
+   * Removes the top card of pile p
+   * @return the removed card
+   */
+  int pop(int p) {
+    int i = --data[SIZES + p];
+    int c = data[OFFSET[p] + i];
+    hash ^= Zobrist.cardKey(p, i, c);
+    return c;
+  }
+
+  /**
+   * Moves the top count cards of pile from onto pile to, keeping their order
+   */
+  void moveCards(int from, int to, int count) {
+    int start = data[SIZES + from] - count;
+    int dest  = data[SIZES + to];
+    for (int i = 0; i < count; i++) {
+      int c = data[OFFSET[from] + start + i];
+      hash ^= Zobrist.cardKey(from, start + i, c) ^ Zobrist.cardKey(to, dest + i, c);
+    }
+    System.arraycopy(data, OFFSET[from] + start, data, OFFSET[to] + data[SIZES + to], count);
+    data[SIZES + to]  += count;
+    data[SIZES + from] = (byte)start;
+  }
+
+  /**
+   * Sets the number of face-down cards at the bottom of tableau pile p
+   */
+  void setFaceDownCount(int p, int count) {
+    hash ^= Zobrist.faceDownKey(p, data[FACE_DOWN + p - TABLEAU]) ^ Zobrist.faceDownKey(p, count);
+    data[FACE_DOWN + p - TABLEAU] = (byte)count;
+  }
+
+  /**
+   * Turns the top card of tableau pile p face up if it is face down
+   * @return whether a card was turned
+   */
+  boolean turnTopCardUp(int p) {
+    int size = data[SIZES + p];
+    if (size > 0 && data[FACE_DOWN + p - TABLEAU] == size) {
+      setFaceDownCount(p, size - 1);
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Turns the top card of tableau pile p back face down, undoing turnTopCardUp
+   */
+  void turnTopCardDown(int p) {
+    setFaceDownCount(p, data[FACE_DOWN + p - TABLEAU] + 1);
+  }
+
+}
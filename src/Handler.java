@@ -1,9 +1,18 @@
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 /**
  * Handler.java
  * The Handler is the driver class for Solitaire.
  * It initializes the game frame and panel and initially paints the screen.
+ * Run with "batch" or "batch-print" as the first argument, it runs a BatchSolver instead;
+ * run with "record-print" and a game record file, it prints the games recorded in the file;
+ * run with "replay" and record files, it checks the recorded games with a ReplayValidator;
+ * run with "deal-pool" and a pool file, it fills the file with winnable deals (see DealPool);
+ * run with "solved", a store directory and seeds, it looks the deals up in a SolvedDealStore.
  *
  * @author  Jake Wilson
  * @version Mar 15, 2014
@@ -16,9 +25,37 @@ public class Handler {
   private static final int FRAME_WIDTH  = 700;
   private static final int FRAME_HEIGHT = 700;
   
-  public static void main(String[] args) {
-    loadGame();
-    runGame();
+  public static void main(String[] args) throws Exception {
+    if (args.length > 0 && args[0].startsWith("batch")) {
+      String[] rest = Arrays.copyOfRange(args, 1, args.length);
+      if (args[0].equals("batch-print"))
+        rest = new String[] {"print", rest.length > 0 ? rest[0] : ""};
+      BatchSolver.main(rest);
+      return;
+    }
+    if (args.length == 2 && args[0].equals("record-print")) {
+      GameRecordReader.print(Paths.get(args[1]), System.out);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("replay")) {
+      ReplayValidator.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("deal-pool")) {
+      DealPool.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("solved")) {
+      SolvedDealStore.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    // Swing components are built on the event dispatch thread
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        loadGame();
+        runGame();
+      }
+    });
   }
   
   /**
@@ -0,0 +1,248 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HintEngine.java
+ * Finds a move to suggest to the player, on a thread of its own, within a hard time budget.
+ *
+ * The search is anytime: it has an answer from the start and only improves it. The first
+ * answer is the move the solver's move ordering rates best (Engine generates the legal moves,
+ * SearchWorker orders them). Then the position is searched the way Solver searches a deal,
+ * with passes allowing more and more moves, until the budget runs out. A win found in time
+ * makes its first move the hint; otherwise the hint is the best rated move the search has not
+ * proven lost.
+ *
+ * The search caches stay warm between hints: neither TranspositionTable is ever cleared, so
+ * what one hint learned about the positions ahead speeds up the next, and the whole winning
+ * line of the last win found is kept, so following the hints costs no search at all. The
+ * passes without and with the rarely useful moves each keep their own table, since a position
+ * lost without those moves may still be won with them (Solver clears its one table between
+ * the passes for the same reason).
+ *
+ * A new request, or cancel, stops the search in progress at once; a cancelled search reports
+ * nothing.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class HintEngine implements Runnable {
+
+  /**
+   * Told, on the hint engine's thread, the hint for a board
+   */
+  public interface Listener {
+    /**
+     * @param board the position the hint is for
+     * @param hint the move to suggest, or null if no move is worth making
+     * @param winning whether the hint is known to lead to a win
+     */
+    void hintFound(Board board, Move hint, boolean winning);
+  }
+
+  /**
+   * The system property that sets the time budget of a hint, in milliseconds
+   */
+  public static final String BUDGET_PROPERTY = "solitaire.hintMillis";
+
+  /**
+   * The time budget of a hint when BUDGET_PROPERTY is not set, in milliseconds
+   */
+  public static final long DEFAULT_BUDGET_MILLIS = 50;
+
+  /**
+   * The log2 of the number of entries in the search cache
+   */
+  private static final int TABLE_BITS = 18;
+
+  private final long budgetNanos;
+
+  /**
+   * The search of the pass without the rarely useful moves, and of the pass with every move
+   */
+  private final SearchWorker       worker      = new SearchWorker(new TranspositionTable(TABLE_BITS));
+  private final TranspositionTable everyTable  = new TranspositionTable(TABLE_BITS);
+  private final SearchWorker       everyWorker = new SearchWorker(everyTable);
+  private final Thread             thread;
+
+  /**
+   * The request to search next, and the search in progress
+   */
+  private final AtomicReference<Request> pending = new AtomicReference<Request>();
+  private volatile SearchControl running;
+  private volatile boolean       stopped;
+
+  /**
+   * Counts requests and cancels; a search only reports if nothing came after its request
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * The next move of the last winning line found, for every position along it
+   */
+  private final Map<Long, Move> line = new HashMap<Long, Move>();
+
+  private final GameState state  = new GameState();
+  private final Engine    engine = new Engine(state);
+
+  /**
+   * Constructs a hint engine with the budget BUDGET_PROPERTY sets and starts its thread
+   */
+  public HintEngine() {
+    this(Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET_MILLIS));
+  }
+
+  /**
+   * Constructs a hint engine and starts its thread
+   * @param budgetMillis the most time to search for each hint
+   */
+  public HintEngine(long budgetMillis) {
+    budgetNanos = Solver.toNanos(budgetMillis);
+    thread = new Thread(this, "hint");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Asks for a hint for board, stopping the search for any earlier request
+   * @param board the position
+   * @param listener what to tell the hint
+   */
+  public void request(Board board, Listener listener) {
+    pending.set(new Request(board, listener, System.nanoTime(), generation.incrementAndGet()));
+    stopRunning();
+    LockSupport.unpark(thread);
+  }
+
+  /**
+   * Stops the search in progress, if any, and drops any request not yet started, without
+   * reporting a hint for either
+   */
+  public void cancel() {
+    generation.incrementAndGet();
+    pending.set(null);
+    stopRunning();
+  }
+
+  /**
+   * Cancels any search, as cancel does, and stops the engine's thread. The engine cannot be
+   * used afterwards.
+   */
+  public void shutdown() {
+    stopped = true;
+    cancel();
+    LockSupport.unpark(thread);
+  }
+
+  private void stopRunning() {
+    SearchControl c = running;
+    if (c != null)
+      c.stop();
+  }
+
+  public void run() {
+    while (!stopped) {
+      Request r = pending.getAndSet(null);
+      if (r == null) {
+        LockSupport.park(this);
+        continue;
+      }
+
+      SearchControl control = new SearchControl(Long.MAX_VALUE, budgetNanos);
+      running = control;
+      // a request or cancel from before running was set could not stop this search
+      if (r.generation != generation.get())
+        continue;
+
+      boolean[] winning = new boolean[1];
+      Move hint = search(r.board, control, winning);
+      running = null;
+      if (r.generation != generation.get())
+        continue;
+      Metrics.HINTS.record(System.nanoTime() - r.requestNanos);
+      r.listener.hintFound(r.board, hint, winning[0]);
+    }
+  }
+
+  /**
+   * Searches board until control stops
+   * @param winning set to whether the move returned is known to win
+   * @return the best move found, or null if no move is worth making
+   */
+  Move search(Board board, SearchControl control, boolean[] winning) {
+    GameState start = board.toGameState();
+    if (start.isWon())
+      return null;
+    Move known = line.get(start.getHash());
+    state.copyFrom(start);
+    // the hash does not tell which suit pile each suit is on, so check the move still fits
+    if (known != null && engine.isLegal(known)) {
+      winning[0] = true;
+      return known;
+    }
+
+    Move[] rated = worker.orderedMoves(start, true);
+    if (rated.length == 0)
+      return null;
+
+    for (int pass = 0; pass < 2 && !control.isStopped(); pass++) {
+      boolean      everyMove = (pass == 1);
+      SearchWorker w         = everyMove ? everyWorker : worker;
+      for (int limit = Solver.FIRST_DEPTH; limit <= Solver.MAX_DEPTH && !control.isStopped(); limit *= 2) {
+        w.reset(start, control, everyMove);
+        boolean won = w.search(0, limit);
+        w.flush();
+        if (won) {
+          remember(start, w.getPath(), w.getSolutionLength());
+          winning[0] = true;
+          return w.getPath()[0];
+        }
+        if (!control.isStopped() && !w.hadCutoff())
+          break; // lost, unless this pass left out the rarely useful moves
+      }
+    }
+
+    // no win in time: the best rated move not proven lost with every move allowed, if any
+    for (Move m : rated) {
+      state.copyFrom(start);
+      engine.play(m);
+      if (everyTable.get(state.getHash()) != SearchWorker.LOST)
+        return m;
+    }
+    return rated[0];
+  }
+
+  /**
+   * Keeps the winning line moves[0..length) from start, replacing the last one kept
+   */
+  private void remember(GameState start, Move[] moves, int length) {
+    line.clear();
+    state.copyFrom(start);
+    for (int i = 0; i < length; i++) {
+      line.put(state.getHash(), moves[i]);
+      engine.play(moves[i]);
+    }
+  }
+
+  /**
+   * A board to find a hint for
+   */
+  private static final class Request {
+
+    final Board    board;
+    final Listener listener;
+    final long     requestNanos;
+    final long     generation;
+
+    Request(Board board, Listener listener, long requestNanos, long generation) {
+      this.board        = board;
+      this.listener     = listener;
+      this.requestNanos = requestNanos;
+      this.generation   = generation;
+    }
+
+  }
+
+}
@@ -0,0 +1,124 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram.java
+ * Counts values (usually nanoseconds) in power-of-two buckets: bucket 0 holds 0, and bucket b
+ * holds the values from 2^(b-1) to 2^b - 1. Recording a value is a leading-zero count and two
+ * uncontended atomic adds, cheap enough to leave on everywhere, and the percentiles it reports
+ * are within a factor of two, which is all it takes to tell a 2 ms frame from a 30 ms one.
+ *
+ * Any thread may record values while another reads them; a reader sees each count as it was
+ * at some moment, though not all of them at the same moment.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class Histogram implements HistogramMXBean {
+
+  /**
+   * The number of buckets: one for 0 and one for each bit length of a positive long
+   */
+  public static final int BUCKETS = 64;
+
+  private final String          name;
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final AtomicLong      sum     = new AtomicLong();
+  private final AtomicLong      max     = new AtomicLong();
+
+  /**
+   * @param name what the histogram measures, for reports
+   */
+  public Histogram(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Counts one value
+   * @param value the value; negative values count as 0
+   */
+  public void record(long value) {
+    value = Math.max(0, value);
+    buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+    sum.addAndGet(value);
+    for (long m; value > (m = max.get()) && !max.compareAndSet(m, value); ) { }
+  }
+
+  /**
+   * @return what the histogram measures
+   */
+  public String getName() {
+    return name;
+  }
+
+  public long getCount() {
+    long n = 0;
+    for (int b = 0; b < BUCKETS; b++)
+      n += buckets.get(b);
+    return n;
+  }
+
+  public double getMean() {
+    long n = getCount();
+    return n == 0 ? 0 : (double)sum.get() / n;
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public long getMedian() {
+    return getPercentile(50);
+  }
+
+  public long getPercentile90() {
+    return getPercentile(90);
+  }
+
+  public long getPercentile99() {
+    return getPercentile(99);
+  }
+
+  /**
+   * @param p the percentile, from 0 to 100
+   * @return a value at least as large as p percent of the values counted (the top of the
+   *         bucket the percentile falls in, or the largest value if that is smaller)
+   */
+  public long getPercentile(double p) {
+    long n = getCount();
+    if (n == 0)
+      return 0;
+
+    long rank = (long)Math.ceil(n * p / 100), seen = 0;
+    for (int b = 0; b < BUCKETS; b++) {
+      seen += buckets.get(b);
+      if (seen >= rank)
+        return Math.min(b == 0 ? 0 : (1L << b) - 1, getMax());
+    }
+    return getMax();
+  }
+
+  public long[] getBuckets() {
+    long[] counts = new long[BUCKETS];
+    for (int b = 0; b < BUCKETS; b++)
+      counts[b] = buckets.get(b);
+    return counts;
+  }
+
+  public void reset() {
+    for (int b = 0; b < BUCKETS; b++)
+      buckets.set(b, 0);
+    sum.set(0);
+    max.set(0);
+  }
+
+  /**
+   * @return a one-line summary of the values, read as nanoseconds
+   */
+  public String toString() {
+    return String.format("%s: %d, mean %.3f ms, p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms",
+                         name, getCount(), getMean() / 1e6, getMedian() / 1e6, getPercentile90() / 1e6,
+                         getPercentile99() / 1e6, getMax() / 1e6);
+  }
+
+}
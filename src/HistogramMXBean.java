@@ -0,0 +1,29 @@
+/**
+ * HistogramMXBean.java
+ * The management interface of a Histogram, as seen through JMX
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public interface HistogramMXBean {
+
+  long getCount();
+
+  double getMean();
+
+  long getMax();
+
+  long getMedian();
+
+  long getPercentile90();
+
+  long getPercentile99();
+
+  /**
+   * @return the count of each bucket (see Histogram)
+   */
+  long[] getBuckets();
+
+  void reset();
+
+}
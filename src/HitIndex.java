@@ -0,0 +1,192 @@
+import java.util.Arrays;
+
+/**
+ * HitIndex.java
+ * Maps a point of the panel straight to the pile and card under it, and a dragged card to the
+ * piles it could be dropped on, without scanning every pile and card.
+ *
+ * The piles never move: the main piles and suit piles sit in fixed columns (see
+ * GamePanel.MAIN_PILE_X_LOCS and SUIT_PILE_X_LOCS), so a table built once maps each x to its
+ * column, and the cards of a main pile sit Pile.VERT_DISPL apart, so the card under a point is
+ * found by a division. Only face-up cards can be hit, and only the top card of a suit pile or
+ * of the deck pile.
+ *
+ * Hits are packed into an int as the engine's pile number times 256 plus the card index; use
+ * pile and card to unpack them.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class HitIndex {
+
+  /**
+   * What hit returns when no card is at the point
+   */
+  public static final int NONE = -1;
+
+  /**
+   * The most piles a dropped card can overlap: two columns in each of two rows
+   */
+  public static final int MAX_TARGETS = 4;
+
+  private final Pile[] mainPiles, suitPiles;
+  private final Pile   deckPile;
+
+  /**
+   * The main pile column and the suit pile column at each x, or -1 between columns
+   */
+  private final byte[] mainColumnAt, suitColumnAt;
+
+  private final int[] overlaps = new int[MAX_TARGETS];
+
+  /**
+   * Builds the index over the panel's piles
+   */
+  public HitIndex(Pile[] mainPiles, Pile[] suitPiles, Pile deckPile) {
+    this.mainPiles = mainPiles;
+    this.suitPiles = suitPiles;
+    this.deckPile  = deckPile;
+    mainColumnAt   = columns(GamePanel.MAIN_PILE_X_LOCS);
+    suitColumnAt   = columns(GamePanel.SUIT_PILE_X_LOCS);
+  }
+
+  /**
+   * @return a table from x to the index of the column of xs that x falls in (from xs[i] to
+   *         xs[i] + Card.WIDTH, inclusive), or -1
+   */
+  private static byte[] columns(int[] xs) {
+    int width = 0;
+    for (int x : xs)
+      width = Math.max(width, x + Card.WIDTH + 1);
+
+    byte[] table = new byte[width];
+    Arrays.fill(table, (byte)-1);
+    for (int i = 0; i < xs.length; i++)
+      for (int x = xs[i]; x <= xs[i] + Card.WIDTH; x++)
+        table[x] = (byte)i;
+
+    return table;
+  }
+
+  /**
+   * Finds the card that would be picked up by pressing at (x, y)
+   * @return the packed pile and card index, or NONE
+   */
+  public int hit(int x, int y) {
+    if (y >= GamePanel.MAIN_PILE_Y_LOC) {
+      int col = column(mainColumnAt, x);
+      return (col < 0) ? NONE : hitMainPile(col, y);
+    }
+    if (y < GamePanel.SUIT_PILE_Y_LOC || y > GamePanel.SUIT_PILE_Y_LOC + Card.HEIGHT)
+      return NONE;
+
+    int col = column(suitColumnAt, x);
+    if (col >= 0)
+      return suitPiles[col].isEmpty() ? NONE : pack(GameState.FOUNDATION + col, suitPiles[col].size() - 1);
+
+    Card top = deckPile.getCardOnTop();
+    if (top != null && x >= top.getX() && x <= top.getRightX() && y >= top.getY() && y <= top.getBottomY())
+      return pack(GameState.WASTE, deckPile.size() - 1);
+
+    return NONE;
+  }
+
+  /**
+   * Finds the card of main pile col at height y: the covered card whose strip y is in, or the
+   * top card
+   */
+  private int hitMainPile(int col, int y) {
+    Pile p = mainPiles[col];
+    int n  = p.size();
+    if (n == 0)
+      return NONE;
+
+    int i = (y - p.getY()) / Pile.VERT_DISPL;
+    if (i >= n - 1) {
+      i = n - 1;
+      if (y > p.getY() + i * Pile.VERT_DISPL + Card.HEIGHT)
+        return NONE;
+    }
+
+    return p.getCardAt(i).faceDown ? NONE : pack(GameState.TABLEAU + col, i);
+  }
+
+  /**
+   * Finds the piles a card could be dropped on: every main or suit pile its rectangle
+   * overlaps, except the pile it was picked up from
+   * @param c the card being dropped (the bottom card of the dragged pile)
+   * @param from the engine's pile number the card came from
+   * @param out where to put the engine's pile numbers of the targets, largest overlap first;
+   *        it must hold MAX_TARGETS
+   * @return the number of targets
+   */
+  public int dropTargets(Card c, int from, int[] out) {
+    int n = 0;
+    for (int dx = 0; dx <= Card.WIDTH; dx += Card.WIDTH) {
+      // the card's left and right edges fall in at most two columns
+      int col = column(mainColumnAt, c.getX() + dx);
+      if (col >= 0 && (dx == 0 || col != column(mainColumnAt, c.getX()))) {
+        Pile p = mainPiles[col];
+        int h  = Card.HEIGHT + Math.max(0, p.size() - 1) * Pile.VERT_DISPL;
+        n = addTarget(out, n, GameState.TABLEAU + col, from, overlap(c, p.getX(), p.getY(), h));
+      }
+      col = column(suitColumnAt, c.getX() + dx);
+      if (col >= 0 && (dx == 0 || col != column(suitColumnAt, c.getX()))) {
+        Pile p = suitPiles[col];
+        n = addTarget(out, n, GameState.FOUNDATION + col, from, overlap(c, p.getX(), p.getY(), Card.HEIGHT));
+      }
+    }
+
+    return n;
+  }
+
+  /**
+   * Inserts a target into out, keeping out sorted by overlap, largest first
+   * @return the new number of targets
+   */
+  private int addTarget(int[] out, int n, int pile, int from, int overlap) {
+    if (overlap <= 0 || pile == from)
+      return n;
+
+    int i = n;
+    for (; i > 0 && overlaps[i - 1] < overlap; i--) {
+      out[i]      = out[i - 1];
+      overlaps[i] = overlaps[i - 1];
+    }
+    out[i]      = pile;
+    overlaps[i] = overlap;
+    return n + 1;
+  }
+
+  /**
+   * @return the area card c overlaps of a pile at (x, y) that is height tall
+   */
+  private static int overlap(Card c, int x, int y, int height) {
+    int w = Math.min(c.getRightX(), x + Card.WIDTH) - Math.max(c.getX(), x);
+    int h = Math.min(c.getBottomY(), y + height) - Math.max(c.getY(), y);
+    return (w > 0 && h > 0) ? w * h : 0;
+  }
+
+  private static int column(byte[] table, int x) {
+    return (x >= 0 && x < table.length) ? table[x] : -1;
+  }
+
+  private static int pack(int pile, int card) {
+    return pile << 8 | card;
+  }
+
+  /**
+   * @return the engine's pile number of a hit
+   */
+  public static int pile(int hit) {
+    return hit >> 8;
+  }
+
+  /**
+   * @return the card index of a hit
+   */
+  public static int card(int hit) {
+    return hit & 0xFF;
+  }
+
+}
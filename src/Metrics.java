@@ -0,0 +1,195 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics.java
+ * Always-on measurements of an interactive session, for telling whether stutter comes from
+ * painting, input handling, the game logic or updating the piles: a latency Histogram of each,
+ * one of input to paint, and counters of cards drawn and of repaints requested against frames
+ * painted (Swing coalesces repaints that arrive before the last one is painted, so the
+ * difference is how many were folded together).
+ *
+ * The histograms and counters are process-wide. They are published through JMX under
+ * "solitaire:type=Metrics" and "solitaire:type=Histogram,name=..." (see register), and can be
+ * printed every few seconds (see LOG_INTERVAL_PROPERTY).
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class Metrics implements MetricsMXBean {
+
+  /**
+   * The system property that, when set to a number of seconds, prints every metric that often
+   */
+  public static final String LOG_INTERVAL_PROPERTY = "solitaire.metricsInterval";
+
+  public static final Histogram PAINT        = new Histogram("paintComponent");
+  public static final Histogram PRESSED      = new Histogram("mousePressed");
+  public static final Histogram DRAGGED      = new Histogram("mouseDragged");
+  public static final Histogram RELEASED     = new Histogram("mouseReleased");
+  public static final Histogram PILE_UPDATES = new Histogram("pile update");
+  public static final Histogram COMMANDS     = new Histogram("game logic");
+  public static final Histogram HINTS        = new Histogram("hint");
+
+  /**
+   * From an input arriving to the end of the first frame painted after the game logic handled it
+   */
+  public static final Histogram INPUT_TO_PAINT = new Histogram("input to paint");
+
+  /**
+   * The number of cards drawn in each frame; not a time
+   */
+  public static final Histogram CARDS_PER_FRAME = new Histogram("cards per frame");
+
+  private static final Histogram[] HISTOGRAMS = {PAINT, PRESSED, DRAGGED, RELEASED, PILE_UPDATES,
+                                                  COMMANDS, HINTS, INPUT_TO_PAINT};
+
+  private static final Metrics INSTANCE = new Metrics();
+
+  private final AtomicLong frames            = new AtomicLong();
+  private final AtomicLong cardsDrawn        = new AtomicLong();
+  private final AtomicLong dirtyMarks        = new AtomicLong();
+  private final AtomicLong repaintsRequested = new AtomicLong();
+
+  /**
+   * The cards drawn so far in the frame being painted, only touched on the event dispatch
+   * thread
+   */
+  private static int cardsThisFrame;
+
+  private static boolean registered;
+
+  private Metrics() {
+  }
+
+  /**
+   * @return the game's counters
+   */
+  public static Metrics get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Counts a card drawn in the frame being painted
+   */
+  public static void cardDrawn() {
+    cardsThisFrame++;
+  }
+
+  /**
+   * Counts a painted frame, and the cards drawn in it
+   * @param nanos the time it took to paint
+   */
+  public static void framePainted(long nanos) {
+    PAINT.record(nanos);
+    CARDS_PER_FRAME.record(cardsThisFrame);
+    INSTANCE.frames.incrementAndGet();
+    INSTANCE.cardsDrawn.addAndGet(cardsThisFrame);
+    cardsThisFrame = 0;
+  }
+
+  /**
+   * Counts an area marked for repainting
+   */
+  public static void dirtyMarked() {
+    INSTANCE.dirtyMarks.incrementAndGet();
+  }
+
+  /**
+   * Counts a repaint requested from Swing
+   */
+  public static void repaintRequested() {
+    INSTANCE.repaintsRequested.incrementAndGet();
+  }
+
+  public long getFramesPainted() {
+    return frames.get();
+  }
+
+  public long getCardsDrawn() {
+    return cardsDrawn.get();
+  }
+
+  public double getCardsPerFrame() {
+    long n = frames.get();
+    return n == 0 ? 0 : (double)cardsDrawn.get() / n;
+  }
+
+  public long getAreasMarkedDirty() {
+    return dirtyMarks.get();
+  }
+
+  public long getRepaintsRequested() {
+    return repaintsRequested.get();
+  }
+
+  public long getRepaintsCoalesced() {
+    return Math.max(0, repaintsRequested.get() - frames.get());
+  }
+
+  public String dump() {
+    StringBuilder s = new StringBuilder();
+    s.append(String.format("%d frames, %.1f cards/frame (max %d), %d areas marked dirty, " +
+                           "%d repaints requested, %d coalesced%n",
+                           getFramesPainted(), getCardsPerFrame(), CARDS_PER_FRAME.getMax(),
+                           getAreasMarkedDirty(), getRepaintsRequested(), getRepaintsCoalesced()));
+    for (Histogram h : HISTOGRAMS)
+      s.append(h).append(String.format("%n"));
+    return s.toString();
+  }
+
+  public void reset() {
+    frames.set(0);
+    cardsDrawn.set(0);
+    dirtyMarks.set(0);
+    repaintsRequested.set(0);
+    CARDS_PER_FRAME.reset();
+    for (Histogram h : HISTOGRAMS)
+      h.reset();
+  }
+
+  /**
+   * Publishes the metrics through the platform MBean server and, if LOG_INTERVAL_PROPERTY is
+   * set, starts printing them to System.err. Only the first call does anything; the metrics
+   * are recorded whether or not this is called.
+   */
+  public static synchronized void register() {
+    if (registered)
+      return;
+    registered = true;
+
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      server.registerMBean(INSTANCE, new ObjectName("solitaire:type=Metrics"));
+      for (Histogram h : HISTOGRAMS)
+        server.registerMBean(h, new ObjectName("solitaire:type=Histogram,name=" + ObjectName.quote(h.getName())));
+      server.registerMBean(CARDS_PER_FRAME,
+                           new ObjectName("solitaire:type=Histogram,name=" + ObjectName.quote(CARDS_PER_FRAME.getName())));
+    } catch (JMException e) {
+      System.err.println("could not publish the metrics through JMX: " + e);
+    }
+
+    final long interval = Long.getLong(LOG_INTERVAL_PROPERTY, 0) * 1000;
+    if (interval <= 0)
+      return;
+    Thread logger = new Thread("metrics-log") {
+      public void run() {
+        try {
+          while (true) {
+            Thread.sleep(interval);
+            System.err.print(INSTANCE.dump());
+          }
+        } catch (InterruptedException e) {
+          // the program is exiting
+        }
+      }
+    };
+    logger.setDaemon(true);
+    logger.start();
+  }
+
+}
@@ -0,0 +1,33 @@
+/**
+ * MetricsMXBean.java
+ * The management interface of the game's counters, as seen through JMX. The latency
+ * histograms are registered as HistogramMXBeans of their own.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public interface MetricsMXBean {
+
+  long getFramesPainted();
+
+  long getCardsDrawn();
+
+  double getCardsPerFrame();
+
+  long getAreasMarkedDirty();
+
+  long getRepaintsRequested();
+
+  /**
+   * @return the repaints requested that Swing folded into another frame instead of painting
+   */
+  long getRepaintsCoalesced();
+
+  /**
+   * @return every counter and histogram, one per line
+   */
+  String dump();
+
+  void reset();
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Move.java
+ * A move moves the top cards of one pile onto another pile. Piles are numbered as in
+ * GameState. Clicking the deck is also a move: DRAW turns up to three cards from the stock
+ * onto the waste and RECYCLE turns the waste back over into the stock.
+ *
+ * Moves are immutable and interned, so Move.of never allocates and moves can be compared
+ * with ==.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class Move {
+
+  /**
+   * The most cards a single move can carry (a king down to an ace)
+   */
+  public static final int MAX_COUNT = 13;
+
+  /**
+   * Draws cards from the stock onto the waste
+   */
+  public static final Move DRAW = new Move(GameState.STOCK, GameState.WASTE, 0);
+
+  /**
+   * Turns the waste back over into an empty stock
+   */
+  public static final Move RECYCLE = new Move(GameState.WASTE, GameState.STOCK, 0);
+
+  private static final Move[] MOVES = new Move[GameState.PILES * GameState.PILES * (MAX_COUNT + 1)];
+  static {
+    for (int from = 0; from < GameState.PILES; from++)
+      for (int to = 0; to < GameState.PILES; to++)
+        for (int count = 1; count <= MAX_COUNT; count++)
+          MOVES[index(from, to, count)] = new Move(from, to, count);
+  }
+
+  private final int from;
+  private final int to;
+  private final int count;
+
+  private Move(int from, int to, int count) {
+    this.from  = from;
+    this.to    = to;
+    this.count = count;
+  }
+
+  /**
+   * Returns the move of the top count cards of pile from onto pile to
+   * @param from the pile the cards are taken from
+   * @param to the pile the cards are dropped on
+   * @param count the number of cards moved
+   * @return the move
+   */
+  public static Move of(int from, int to, int count) {
+    if (from < 0 || from >= GameState.PILES || to < 0 || to >= GameState.PILES ||
+        count < 1 || count > MAX_COUNT)
+      throw new IllegalArgumentException("no move of " + count + " cards from " + from + " to " + to);
+
+    return MOVES[index(from, to, count)];
+  }
+
+  private static int index(int from, int to, int count) {
+    return (from * GameState.PILES + to) * (MAX_COUNT + 1) + count;
+  }
+
+  /**
+   * @return the pile the cards are taken from
+   */
+  public int getFrom() {
+    return from;
+  }
+
+  /**
+   * @return the pile the cards are dropped on
+   */
+  public int getTo() {
+    return to;
+  }
+
+  /**
+   * @return the number of cards moved, or 0 for DRAW and RECYCLE
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * @return whether this is a click on the deck (DRAW or RECYCLE)
+   */
+  public boolean isDeckClick() {
+    return count == 0;
+  }
+
+  /**
+   * @return the string: "<count> from <from> to <to>", or "draw"/"recycle"
+   */
+  public String toString() {
+    if (this == DRAW)    return "draw";
+    if (this == RECYCLE) return "recycle";
+
+    return count + " from " + from + " to " + to;
+  }
+
+}
@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * MoveHistory.java
+ * The moves played in a game, with undo and redo. Each move is kept as the record Engine.play
+ * returned for it (the piles, the number of cards moved and whether a card was turned up), in
+ * a char, so a whole game costs two bytes a move. Undo and redo replay one record against the
+ * engine, changing only the piles the move touched; the board is never copied.
+ *
+ * Playing a new move after undoing drops the moves that could have been redone.
+ *
+ * A history can also record the game to a GameRecordWriter as it is played (see setRecorder).
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class MoveHistory {
+
+  private final Engine engine;
+
+  /**
+   * records[0 .. size) are the moves played, of which records[0 .. position) are in effect
+   */
+  private char[] records = new char[64];
+  private int    size;
+  private int    position;
+
+  private GameRecordWriter recorder;
+
+  /**
+   * Constructs an empty history of the moves played on engine
+   * @param engine the engine whose moves to record; every move it plays from now on must be
+   *        played through this history
+   */
+  public MoveHistory(Engine engine) {
+    this.engine = engine;
+  }
+
+  /**
+   * Plays m if it is legal and records it
+   * @param m the move to play
+   * @return whether the move was legal (and so has been played)
+   */
+  public boolean play(Move m) {
+    int record = engine.play(m);
+    if (record == Engine.ILLEGAL)
+      return false;
+
+    if (position == records.length)
+      records = Arrays.copyOf(records, records.length * 2);
+    records[position++] = (char)record;
+    size = position;
+    if (recorder != null) {
+      try {
+        recorder.move(m);
+      } catch (IOException e) {
+        stopRecording(e);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Takes back the last move in effect
+   * @return whether there was a move to take back
+   */
+  public boolean undo() {
+    if (position == 0)
+      return false;
+
+    engine.undo(records[--position]);
+    if (recorder != null) {
+      try {
+        recorder.undo();
+      } catch (IOException e) {
+        stopRecording(e);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Plays again the last move taken back
+   * @return whether there was a move to play again
+   */
+  public boolean redo() {
+    if (position == size)
+      return false;
+
+    engine.play(Engine.moveOf(records[position++]));
+    if (recorder != null) {
+      try {
+        recorder.redo();
+      } catch (IOException e) {
+        stopRecording(e);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Records every move, undo and redo from now on to recorder, which must be recording this
+   * game. They go into the recorder's buffer, which is written to the file when it fills up
+   * and when the recorder is flushed at the end of the game, so a crash loses the last moves
+   * of the game being played. If writing fails the error is reported and recording stops; the
+   * game goes on.
+   * @param recorder where to record the game, or null to stop recording
+   */
+  public void setRecorder(GameRecordWriter recorder) {
+    this.recorder = recorder;
+  }
+
+  private void stopRecording(IOException e) {
+    System.err.println("could not record the game: " + e);
+    recorder = null;
+  }
+
+  /**
+   * @return whether there is a move to take back
+   */
+  public boolean canUndo() {
+    return position > 0;
+  }
+
+  /**
+   * @return whether there is a move to play again
+   */
+  public boolean canRedo() {
+    return position < size;
+  }
+
+  /**
+   * @return the number of moves in effect
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  /**
+   * @return the number of moves recorded, including any that were taken back
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param i the index of a recorded move, from 0 to size() - 1
+   * @return the engine record of the move
+   */
+  public int getRecord(int i) {
+    if (i < 0 || i >= size)
+      throw new IndexOutOfBoundsException("no move " + i + " in a history of " + size);
+
+    return records[i];
+  }
+
+  /**
+   * @return the moves in effect, in the order they were played
+   */
+  public Move[] getMoves() {
+    Move[] moves = new Move[position];
+    for (int i = 0; i < position; i++)
+      moves[i] = Engine.moveOf(records[i]);
+
+    return moves;
+  }
+
+  /**
+   * Forgets every move, without changing the engine's position
+   */
+  public void clear() {
+    size = position = 0;
+  }
+
+  /**
+   * @return the memory taken by the records, in bytes
+   */
+  public long sizeInBytes() {
+    return records.length * 2L;
+  }
+
+}
@@ -0,0 +1,231 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ParallelSolver.java
+ * Solves deals the way Solver does, but on a fork-join pool. Each pass of the iterative
+ * deepening forks one task per move for the first SPLIT_DEPTH moves, and the tasks at that
+ * depth each run a SearchWorker over their own subtree. All the workers share one
+ * TranspositionTable, so a position one of them has searched (or is searching) is not
+ * searched again by another. A worker that reaches a position another worker or task is
+ * searching cannot tell whether that position will be won, so it counts as running out of
+ * moves (see SearchWorker). That includes cycles back to the positions above SPLIT_DEPTH, so
+ * this solver proves fewer deals unsolvable than Solver does.
+ *
+ * As soon as any task finds a win it records the solution and stops the search, so the tasks
+ * still queued return at once and the running ones return within a few hundred nodes.
+ *
+ * A ParallelSolver may be reused for any number of deals, one at a time. Call shutdown when
+ * it is no longer needed to stop its threads.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class ParallelSolver {
+
+  /**
+   * The number of moves from the start position that are split into separate tasks
+   */
+  public static final int SPLIT_DEPTH = 3;
+
+  private final ForkJoinPool       pool;
+  private final TranspositionTable table;
+  private final long maxNodes;
+  private final long timeLimitNanos;
+
+  /**
+   * Each pool thread reuses one worker for every task it runs. Workers get ids from 1 up,
+   * since the tasks above SPLIT_DEPTH mark their positions in progress as a worker with id 0.
+   */
+  private final AtomicInteger ids = new AtomicInteger();
+  private final ThreadLocal<SearchWorker> workers = new ThreadLocal<SearchWorker>() {
+    protected SearchWorker initialValue() {
+      return new SearchWorker(table, ids.incrementAndGet());
+    }
+  };
+
+  private final AtomicReference<Move[]> solution = new AtomicReference<Move[]>();
+  private SearchControl control;
+
+  /**
+   * Constructs a solver with a 2^22 entry table and no node or time limit
+   * @param threads the number of threads to search with
+   */
+  public ParallelSolver(int threads) {
+    this(threads, 22, Long.MAX_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * Constructs a solver
+   * @param threads the number of threads to search with
+   * @param tableBits the log2 of the number of transposition table entries
+   * @param maxNodes the most positions to search before giving up, over all threads
+   * @param timeLimitMillis the most time to search before giving up
+   */
+  public ParallelSolver(int threads, int tableBits, long maxNodes, long timeLimitMillis) {
+    pool           = new ForkJoinPool(threads);
+    table          = new TranspositionTable(tableBits);
+    this.maxNodes  = maxNodes;
+    timeLimitNanos = Solver.toNanos(timeLimitMillis);
+  }
+
+  /**
+   * Searches for a win from start
+   * @param start the position to solve; it is not changed
+   * @return the result of the search
+   */
+  public SolverResult solve(GameState start) {
+    control = new SearchControl(maxNodes, timeLimitNanos);
+    solution.set(null);
+    table.clear();
+
+    int status = deepen(start, false);
+    if (status == SolverResult.UNSOLVABLE) {
+      table.clear();
+      status = deepen(start, true);
+    }
+
+    Move[] moves = (status == SolverResult.SOLVED) ? solution.get() : new Move[0];
+    return new SolverResult(status, moves, control.getNodes(), control.getElapsedNanos(),
+                            table.sizeInBytes());
+  }
+
+  /**
+   * Stops the solver's threads. The solver cannot be used afterwards.
+   */
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  /**
+   * @return the number of threads the solver searches with
+   */
+  public int getThreads() {
+    return pool.getParallelism();
+  }
+
+  /**
+   * Runs passes with more and more moves allowed until one decides the deal
+   * @param everyMove whether to try the rarely useful moves too
+   * @return SOLVED, UNSOLVABLE or GAVE_UP
+   */
+  private int deepen(GameState start, boolean everyMove) {
+    for (int limit = Solver.FIRST_DEPTH; limit <= Solver.MAX_DEPTH && !control.isStopped(); limit *= 2) {
+      boolean cutoff = pool.invoke(new SplitTask(start.copy(), new Move[0], limit, everyMove));
+      if (solution.get() != null)
+        return SolverResult.SOLVED;
+      if (!control.isStopped() && !cutoff)
+        return SolverResult.UNSOLVABLE;
+    }
+
+    return SolverResult.GAVE_UP;
+  }
+
+  /**
+   * Records a win and stops every other task
+   */
+  private void found(Move[] moves) {
+    solution.compareAndSet(null, moves);
+    control.stop();
+  }
+
+  /**
+   * Searches one position of a pass. Above SPLIT_DEPTH the position's moves are forked as
+   * tasks of their own; at SPLIT_DEPTH the whole subtree is searched by the thread's worker.
+   * The task's result is whether the search ran out of moves anywhere below it.
+   */
+  @SuppressWarnings("serial")
+  private class SplitTask extends RecursiveTask<Boolean> {
+
+    private final GameState state;
+    private final Move[]    prefix;
+    private final int       limit;
+    private final boolean   everyMove;
+
+    /**
+     * @param state the position to search, which the task owns
+     * @param prefix the moves that reach it from the start position
+     * @param limit the most moves allowed in this pass
+     * @param everyMove whether to try the rarely useful moves too
+     */
+    SplitTask(GameState state, Move[] prefix, int limit, boolean everyMove) {
+      this.state     = state;
+      this.prefix    = prefix;
+      this.limit     = limit;
+      this.everyMove = everyMove;
+    }
+
+    protected Boolean compute() {
+      if (control.isStopped())
+        return false;
+      int depth = prefix.length;
+      if (state.isWon()) {
+        found(prefix);
+        return false;
+      }
+      if (depth >= SPLIT_DEPTH)
+        return searchSubtree(depth);
+
+      control.addNodes(1);
+      int remaining = limit - depth;
+      if (SearchWorker.lowerBound(state) > remaining)
+        return true;
+
+      // the same table protocol as SearchWorker.search
+      long hash   = state.getHash();
+      long stored = table.get(hash);
+      if (stored == SearchWorker.LOST)
+        return false;
+      if (stored != TranspositionTable.ABSENT && (stored & SearchWorker.IN_PROGRESS) != 0)
+        return true; // another task's or worker's, or a cycle: not known to be lost
+      if (stored >= remaining)
+        return true;
+      table.put(hash, SearchWorker.IN_PROGRESS | remaining);
+
+      Move[] ms = workers.get().orderedMoves(state, everyMove);
+      List<SplitTask> children = new ArrayList<SplitTask>(ms.length);
+      for (Move m : ms) {
+        GameState child = state.copy();
+        new Engine(child).play(m);
+        Move[] moves = new Move[depth + 1];
+        System.arraycopy(prefix, 0, moves, 0, depth);
+        moves[depth] = m;
+        children.add(new SplitTask(child, moves, limit, everyMove));
+      }
+      invokeAll(children);
+
+      boolean cutoff = false;
+      for (SplitTask child : children)
+        cutoff |= child.join();
+      if (!control.isStopped())
+        table.put(hash, cutoff ? remaining : SearchWorker.LOST);
+
+      return cutoff;
+    }
+
+    /**
+     * Searches the whole subtree below this task's position with the thread's worker
+     * @return whether the search ran out of moves anywhere
+     */
+    private boolean searchSubtree(int depth) {
+      SearchWorker worker = workers.get();
+      worker.reset(state, control, everyMove);
+      boolean won = worker.search(depth, limit);
+      worker.flush();
+      if (won) {
+        Move[] moves = new Move[worker.getSolutionLength()];
+        System.arraycopy(prefix, 0, moves, 0, depth);
+        System.arraycopy(worker.getPath(), depth, moves, depth, moves.length - depth);
+        found(moves);
+      }
+
+      return worker.hadCutoff();
+    }
+
+  }
+
+}
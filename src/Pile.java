@@ -1,5 +1,6 @@
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 
@@ -104,30 +105,50 @@ public class Pile {
   }
   
   /**
-   * Draws the pile of cards
+   * Draws the pile of cards. Only what shows is drawn: a suit pile draws its top card, a main
+   * pile draws the strip of each covered card that shows above the next one, and a deck pile
+   * draws the strip of each of its top 3 cards that shows beside the next one. An empty pile
+   * draws nothing: its outline (see drawOutline) is part of the panel's background layer.
    * @param g the graphics context to draw on
    */
   public void draw(Graphics g) {
-    if (pile.size() == 0 && type != DECK_PILE) {
-      g.setColor(Color.white);
-      g.drawRoundRect(xLoc, yLoc, Card.WIDTH, Card.HEIGHT, 10, 10);
+    if (pile.size() == 0) {
       return;
     }
     
     if (type == DECK_PILE) {
       for (int i = 0; i < top3.length; i++) {
-        if (top3[i] != null) {
+        if (top3[i] == null) {
+          continue;
+        }
+        // the card beside it may have been picked up and be in the middle of a drag
+        Card next = (i + 1 < top3.length) ? top3[i + 1] : null;
+        if (next != null && next.getX() == top3[i].getX() + HORI_DISPL && next.getY() == top3[i].getY()) {
+          top3[i].draw(g, HORI_DISPL + Card.CORNER, Card.HEIGHT + 1);
+        } else {
           top3[i].draw(g);
         }
       }
+    } else if (type == SUIT_PILE) {
+      getCardOnTop().draw(g);
     } else {
-      for (int i = 0; i < pile.size(); i++) {
-        pile.get(i).draw(g);
+      for (int i = 0; i < pile.size() - 1; i++) {
+        pile.get(i).draw(g, Card.WIDTH + 1, VERT_DISPL + Card.CORNER);
       }
+      getCardOnTop().draw(g);
     }
     
   }
   
+  /**
+   * Draws the outline that shows where the pile is when it is empty
+   * @param g the graphics context to draw on
+   */
+  public void drawOutline(Graphics g) {
+    g.setColor(Color.white);
+    g.drawRoundRect(xLoc, yLoc, Card.WIDTH, Card.HEIGHT, 10, 10);
+  }
+  
   /**
    * Adds a card to the pile and sets its location appropriately
    * @param c the card to add
@@ -354,6 +375,23 @@ public class Pile {
     return yLoc;
   }
   
+  /**
+   * Returns the area the pile covers on the screen: every card it draws, or its outline when
+   * it is empty. Only this area needs repainting when the pile changes.
+   * @return the bounds of the pile
+   */
+  public Rectangle getBounds() {
+    int w = Card.WIDTH + 1, h = Card.HEIGHT + 1;
+    if (type == DECK_PILE) {
+      for (int i = 1; i < top3.length; i++)
+        if (top3[i] != null) w += HORI_DISPL;
+    } else if (type != SUIT_PILE) {
+      h = height + 1;
+    }
+    
+    return new Rectangle(xLoc, yLoc, w, h);
+  }
+  
   /**
    * Moves a TEMP_PILE. The method simply does nothing if the pile is not a TEMP_PILE.
    * It also moves the x and y location of every card in the pile
@@ -372,6 +410,15 @@ public class Pile {
     }
   }
   
+  /**
+   * Removes every card from the pile
+   */
+  public void clear() {
+    pile.clear();
+    height = Card.HEIGHT;
+    updateTop3();
+  }
+  
   /**
    * @return whether a pile is empty (size == 0) or not
    */
@@ -0,0 +1,227 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ReplayValidator.java
+ * Checks recorded games (see GameRecord) by dealing each one again from its deal number and
+ * replaying its actions on an Engine, which enforces the same rules the game does. A game
+ * passes only if every move was legal where it was played and every undo and redo had a move
+ * to take back or play again; any other game was recorded wrongly or tampered with and is
+ * flagged, along with the action where it went wrong.
+ *
+ * Record files are replayed in parallel, one file per task on a fixed pool of threads. Each
+ * thread reuses one position, engine, history and deal order for every game it replays, and
+ * the reader decodes the mapped file in place, so replaying allocates nothing per game or per
+ * move (only per flagged game, for its report).
+ *
+ * Usage: java Handler replay [threads] record-file...
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class ReplayValidator {
+
+  /**
+   * What check finds: the game is valid (and won, or not), or the reason it is flagged
+   */
+  public static final int WON = 0, NOT_WON = 1, ILLEGAL_MOVE = 2, BAD_TOKEN = 3,
+                          NOTHING_TO_UNDO = 4, NOTHING_TO_REDO = 5, BAD_VARIANT = 6, CUT_SHORT = 7;
+
+  /**
+   * The name of each verdict
+   */
+  public static final String[] VERDICTS = {"won", "not won", "illegal move", "bad token",
+                                           "nothing to undo", "nothing to redo",
+                                           "unknown rule variant", "cut short"};
+
+  private final GameState   state   = new GameState();
+  private final Engine      engine  = new Engine(state);
+  private final MoveHistory history = new MoveHistory(engine);
+  private final byte[]      order   = new byte[GameState.CARDS];
+
+  /**
+   * The index of the action check stopped at, and the token there
+   */
+  private int failedAt, failedToken;
+
+  /**
+   * Replays the game r has just moved to, reading all its actions
+   * @param r a reader positioned at the start of a game (nextGame has just returned true)
+   * @return WON or NOT_WON if the game is valid, otherwise the reason it is flagged
+   */
+  public int check(GameRecordReader r) {
+    failedAt    = -1;
+    failedToken = GameRecord.END;
+    if (r.getVariant() != Engine.DRAW_COUNT)
+      return fail(0, GameRecord.END, BAD_VARIANT);
+
+    Deal.shuffle(r.getSeed(), order);
+    state.redeal(order);
+    history.clear();
+    int i = 0;
+    for (int t; (t = r.nextToken()) != GameRecord.END; i++) {
+      if (t == GameRecord.UNDO) {
+        if (!history.undo())
+          return fail(i, t, NOTHING_TO_UNDO);
+      } else if (t == GameRecord.REDO) {
+        if (!history.redo())
+          return fail(i, t, NOTHING_TO_REDO);
+      } else {
+        Move m = GameRecord.move(t);
+        if (m == null)
+          return fail(i, t, BAD_TOKEN);
+        if (!history.play(m))
+          return fail(i, t, ILLEGAL_MOVE);
+      }
+    }
+
+    if (!r.isComplete())
+      return fail(i, GameRecord.END, CUT_SHORT);
+    return state.isWon() ? WON : NOT_WON;
+  }
+
+  private int fail(int index, int token, int verdict) {
+    failedAt    = index;
+    failedToken = token;
+    return verdict;
+  }
+
+  /**
+   * @return the index of the action the last game checked was flagged at, or -1 if it passed
+   */
+  public int getFailedAt() {
+    return failedAt;
+  }
+
+  /**
+   * @return the number of moves in effect at the end of the last game checked
+   */
+  public int getMoves() {
+    return history.getPosition();
+  }
+
+  /**
+   * Replays every game of a record file
+   * @param file the record file
+   * @return how many games got each verdict, and a line for each flagged game
+   * @throws IOException if the file cannot be read
+   */
+  public Report check(Path file) throws IOException {
+    Report report = new Report(file);
+    GameRecordReader r = GameRecordReader.open(file);
+    while (r.nextGame()) {
+      int start   = r.getGameStart();
+      int verdict = check(r);
+      report.counts[verdict]++;
+      if (verdict > NOT_WON) {
+        Move m = GameRecord.move(failedToken);
+        report.flagged.add(String.format("%s@%d deal %d: %s at action %d%s", file, start, r.getSeed(),
+                                         VERDICTS[verdict], failedAt, (m != null) ? " (" + m + ")" : ""));
+      }
+    }
+
+    return report;
+  }
+
+  /**
+   * The verdicts of the games of one record file
+   */
+  public static class Report {
+
+    public final Path         file;
+    public final long[]       counts  = new long[VERDICTS.length];
+    public final List<String> flagged = new ArrayList<String>();
+
+    Report(Path file) {
+      this.file = file;
+    }
+
+    /**
+     * @return the number of games in the file
+     */
+    public long getGames() {
+      long n = 0;
+      for (long c : counts)
+        n += c;
+      return n;
+    }
+
+  }
+
+  /**
+   * Replays record files in parallel and prints a line per file and per flagged game
+   * @param files the record files
+   * @param threads the number of files to replay at once
+   * @param out where to print the report
+   * @return the number of games flagged
+   * @throws IOException if a file cannot be read
+   */
+  public static long run(List<Path> files, int threads, PrintStream out) throws IOException, InterruptedException {
+    final ThreadLocal<ReplayValidator> validators = new ThreadLocal<ReplayValidator>() {
+      protected ReplayValidator initialValue() {
+        return new ReplayValidator();
+      }
+    };
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    long start = System.nanoTime(), games = 0, flagged = 0;
+    try {
+      List<Future<Report>> reports = new ArrayList<Future<Report>>(files.size());
+      for (final Path file : files) {
+        reports.add(pool.submit(new Callable<Report>() {
+          public Report call() throws IOException {
+            return validators.get().check(file);
+          }
+        }));
+      }
+
+      for (Future<Report> f : reports) {
+        Report report;
+        try {
+          report = f.get();
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof IOException)
+            throw (IOException)e.getCause();
+          throw new IllegalStateException("replay failed", e.getCause());
+        }
+        for (String line : report.flagged)
+          out.println(line);
+        out.printf("%s: %d games, %d won, %d not won, %d flagged%n", report.file, report.getGames(),
+                   report.counts[WON], report.counts[NOT_WON], report.flagged.size());
+        games   += report.getGames();
+        flagged += report.flagged.size();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    out.printf("%d games in %d files, %d flagged; %.0f games/s%n", games, files.size(), flagged,
+               games * 1e9 / (System.nanoTime() - start));
+    return flagged;
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int first   = (args.length > 0 && args[0].matches("\\d+")) ? 1 : 0;
+    int threads = (first == 1) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+    if (args.length <= first) {
+      System.err.println("usage: replay [threads] record-file...");
+      return;
+    }
+
+    List<Path> files = new ArrayList<Path>();
+    for (int i = first; i < args.length; i++)
+      files.add(Paths.get(args[i]));
+    if (run(files, threads, System.out) > 0)
+      System.exit(1);
+  }
+
+}
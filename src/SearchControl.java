@@ -0,0 +1,70 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SearchControl.java
+ * The node and time limits of one solve, shared by every SearchWorker taking part in it.
+ * Workers report their nodes in batches, and any worker (or a win) can stop the whole search.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+class SearchControl {
+
+  private final AtomicLong nodes = new AtomicLong();
+  private final long maxNodes;
+  private final long startNanos;
+  private final long timeLimitNanos;
+
+  private volatile boolean stopped;
+
+  /**
+   * Starts the clock on a new search
+   * @param maxNodes the most positions to search before giving up
+   * @param timeLimitNanos the most time to search before giving up
+   */
+  SearchControl(long maxNodes, long timeLimitNanos) {
+    this.maxNodes       = maxNodes;
+    this.timeLimitNanos = timeLimitNanos;
+    startNanos          = System.nanoTime();
+  }
+
+  /**
+   * Counts n more searched positions and checks the limits
+   * @return whether the search should stop
+   */
+  boolean addNodes(long n) {
+    if (nodes.addAndGet(n) >= maxNodes || System.nanoTime() - startNanos > timeLimitNanos)
+      stopped = true;
+
+    return stopped;
+  }
+
+  /**
+   * Stops the search, for example because a win was found
+   */
+  void stop() {
+    stopped = true;
+  }
+
+  /**
+   * @return whether the search has been stopped
+   */
+  boolean isStopped() {
+    return stopped;
+  }
+
+  /**
+   * @return the positions searched so far
+   */
+  long getNodes() {
+    return nodes.get();
+  }
+
+  /**
+   * @return the time since the search started, in nanoseconds
+   */
+  long getElapsedNanos() {
+    return System.nanoTime() - startNanos;
+  }
+
+}
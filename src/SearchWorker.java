@@ -0,0 +1,338 @@
+import java.util.Arrays;
+
+/**
+ * SearchWorker.java
+ * The depth-first search shared by Solver and ParallelSolver. A worker searches from its own
+ * copy of a position, records what it learns in a TranspositionTable that other workers may
+ * share, and stops when its SearchControl says so.
+ *
+ * Table values: a position proven lost is LOST, and a position some worker is still searching
+ * is IN_PROGRESS plus the moves it had left, tagged with the worker's id. Any other value is
+ * the number of moves that were left when the position was searched (and ran out). A worker
+ * skips a position in progress without searching it.
+ *
+ * Whether a position is lost can depend on the path to it. A position whose search returns to
+ * a position above it on the path (a cycle) may be won by way of that position, so it is left
+ * pending, not stored as LOST, until the position it returns to is decided: then it is lost
+ * too, or it counts as having run out of moves. A pending position is kept in the table as in
+ * progress at the depth of the position it waits on, so reaching it again counts as the same
+ * cycle. Another worker's position in progress counts as running out of moves. A worker that
+ * wins or is stopped removes the positions on its path and the ones pending as it unwinds, so
+ * a table kept from one search to the next (see HintEngine) holds nothing in progress.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+class SearchWorker {
+
+  static final long IN_PROGRESS = 1L << 32, LOST = IN_PROGRESS - 1;
+
+  /**
+   * How many nodes a worker searches between reports to its SearchControl
+   */
+  private static final int REPORT_INTERVAL = 256;
+
+  private final TranspositionTable table;
+
+  /**
+   * What this worker stores, plus the moves left, for a position it is searching
+   */
+  private final long inProgress;
+
+  private final GameState state  = new GameState();
+  private final Engine    engine = new Engine(state);
+
+  /**
+   * The moves to try at each depth, best first, and their scores
+   */
+  private final Move[][] moves  = new Move[Solver.MAX_DEPTH + 1][];
+  private final int[][]  scores = new int[Solver.MAX_DEPTH + 1][];
+  private final Move[]   path   = new Move[Solver.MAX_DEPTH];
+
+  /**
+   * The positions left pending, and the moves they had left
+   */
+  private long[] pendingHashes    = new long[64];
+  private int[]  pendingRemaining = new int[64];
+  private int    pending;
+
+  private SearchControl control;
+  private long    unreported;
+  private boolean cutoff;
+
+  /**
+   * The shallowest depth of the path that the search below the current position returned to
+   */
+  private int     cycleDepth;
+  private boolean everyMove;
+  private int     solutionLength;
+
+  /**
+   * Constructs a worker that records what it learns in table, which it has to itself
+   */
+  SearchWorker(TranspositionTable table) {
+    this(table, 0);
+  }
+
+  /**
+   * Constructs a worker that records what it learns in table
+   * @param id an id below 2^30 that no other worker searching table at the same time has
+   */
+  SearchWorker(TranspositionTable table, int id) {
+    this.table = table;
+    inProgress = IN_PROGRESS | (long)id << 33;
+  }
+
+  /**
+   * Prepares the worker to search from start
+   * @param start the position to search from; it is copied
+   * @param control the limits of the search
+   * @param everyMove whether to try the rarely useful moves too
+   */
+  void reset(GameState start, SearchControl control, boolean everyMove) {
+    state.copyFrom(start);
+    this.control   = control;
+    this.everyMove = everyMove;
+    cutoff         = false;
+    cycleDepth     = Integer.MAX_VALUE;
+    pending        = 0;
+    unreported     = 0;
+  }
+
+  /**
+   * Searches the current position
+   * @param depth the number of moves played to reach it
+   * @param limit the most moves allowed in this pass
+   * @return whether a win was found; the winning moves from depth on are then in getPath
+   */
+  boolean search(int depth, int limit) {
+    if (state.isWon()) {
+      solutionLength = depth;
+      return true;
+    }
+    if (++unreported >= REPORT_INTERVAL) {
+      control.addNodes(unreported);
+      unreported = 0;
+    }
+    if (control.isStopped())
+      return false;
+
+    int remaining = limit - depth;
+    if (lowerBound(state) > remaining) {
+      cutoff = true;
+      return false;
+    }
+
+    long hash   = state.getHash();
+    long stored = table.get(hash);
+    if (stored == LOST)
+      return false;
+    if (stored != TranspositionTable.ABSENT && (stored & IN_PROGRESS) != 0) {
+      if ((stored & ~LOST) == inProgress)
+        cycleDepth = Math.min(cycleDepth, limit - (int)stored); // on the path, at limit - moves left
+      else
+        cutoff = true; // another worker's: not known to be lost
+      return false;
+    }
+    if (stored >= remaining) {
+      cutoff = true; // already searched with at least as many moves left, which ran out
+      return false;
+    }
+
+    table.put(hash, inProgress | remaining);
+    boolean outerCutoff = cutoff;
+    int     outerCycle  = cycleDepth;
+    int     mark        = pending;
+    cutoff     = false;
+    cycleDepth = Integer.MAX_VALUE;
+
+    int n = orderMoves(depth);
+    Move[] ms = moves[depth];
+    for (int i = 0; i < n; i++) {
+      int record = engine.play(ms[i]);
+      path[depth] = ms[i];
+      boolean won = search(depth + 1, limit);
+      engine.undo(record);
+      if (won || control.isStopped()) {
+        // nothing was decided here: let a later search (from a table kept warm) go through
+        table.remove(hash);
+        for (int k = mark; k < pending; k++)
+          table.remove(pendingHashes[k]);
+        pending = mark;
+        return won;
+      }
+    }
+
+    if (!cutoff && cycleDepth < depth) {
+      // lost unless the position the search returned to is won: wait for it
+      addPending(hash, remaining);
+      for (int k = mark; k < pending; k++)
+        table.put(pendingHashes[k], inProgress | (limit - cycleDepth));
+    } else {
+      for (int k = mark; k < pending; k++)
+        table.put(pendingHashes[k], cutoff ? pendingRemaining[k] : LOST);
+      pending = mark;
+      table.put(hash, cutoff ? remaining : LOST);
+    }
+    cutoff |= outerCutoff;
+    cycleDepth = Math.min(cycleDepth, outerCycle);
+    return false;
+  }
+
+  /**
+   * Leaves the position with hash pending
+   */
+  private void addPending(long hash, int remaining) {
+    if (pending == pendingHashes.length) {
+      pendingHashes    = Arrays.copyOf(pendingHashes, 2 * pending);
+      pendingRemaining = Arrays.copyOf(pendingRemaining, 2 * pending);
+    }
+    pendingHashes[pending]    = hash;
+    pendingRemaining[pending] = remaining;
+    pending++;
+  }
+
+  /**
+   * Reports any nodes not yet reported to the SearchControl
+   */
+  void flush() {
+    control.addNodes(unreported);
+    unreported = 0;
+  }
+
+  /**
+   * @return whether the last search ran out of moves anywhere
+   */
+  boolean hadCutoff() {
+    return cutoff;
+  }
+
+  /**
+   * @return the moves of the path being searched; after a win, the winning moves
+   */
+  Move[] getPath() {
+    return path;
+  }
+
+  /**
+   * @return the depth of the win the last search found
+   */
+  int getSolutionLength() {
+    return solutionLength;
+  }
+
+  /**
+   * Lists the moves worth trying in position s, best first
+   * @param everyMove whether to list the rarely useful moves too
+   * @return a new array of the moves
+   */
+  Move[] orderedMoves(GameState s, boolean everyMove) {
+    state.copyFrom(s);
+    this.everyMove = everyMove;
+    int n = orderMoves(0);
+    Move[] ms = new Move[n];
+    System.arraycopy(moves[0], 0, ms, 0, n);
+    return ms;
+  }
+
+  /**
+   * @return a lower bound on the number of moves needed to win from s: every card not yet on
+   *         a suit pile needs a move, and every card in the deck needs a third of a draw
+   */
+  static int lowerBound(GameState s) {
+    int h = GameState.CARDS;
+    for (int f = GameState.FOUNDATION; f < GameState.FOUNDATION + GameState.FOUNDATION_PILES; f++)
+      h -= s.size(f);
+
+    return h + (s.size(GameState.STOCK) + Engine.DRAW_COUNT - 1) / Engine.DRAW_COUNT;
+  }
+
+  /**
+   * Fills moves[depth] with the moves worth trying in the current position, best first
+   * @return the number of moves
+   */
+  private int orderMoves(int depth) {
+    if (moves[depth] == null) {
+      moves[depth]  = new Move[Engine.MAX_MOVES];
+      scores[depth] = new int[Engine.MAX_MOVES];
+    }
+    Move[] ms = moves[depth];
+    int[]  sc = scores[depth];
+
+    int emptyMain = -1, emptySuit = -1;
+    for (int p = GameState.TABLEAU + GameState.TABLEAU_PILES - 1; p >= GameState.TABLEAU; p--)
+      if (state.isEmpty(p)) emptyMain = p;
+    for (int p = GameState.FOUNDATION + GameState.FOUNDATION_PILES - 1; p >= GameState.FOUNDATION; p--)
+      if (state.isEmpty(p)) emptySuit = p;
+
+    int n = 0, legal = engine.legalMoves(ms);
+    for (int i = 0; i < legal; i++) {
+      Move m    = ms[i];
+      int score = score(m, emptyMain, emptySuit);
+      if (score < 0)
+        continue;
+      // insertion sort, best score first
+      int j = n++;
+      for (; j > 0 && sc[j - 1] < score; j--) {
+        ms[j] = ms[j - 1];
+        sc[j] = sc[j - 1];
+      }
+      ms[j] = m;
+      sc[j] = score;
+    }
+
+    return n;
+  }
+
+  /**
+   * Scores a legal move for move ordering. Moves that can never help are scored -1 and are
+   * not tried: moving a card between suit piles, moving a whole main pile onto an empty main
+   * pile, and moving to any empty pile but the leftmost one (the others would give the same
+   * game with the piles swapped). Unless everyMove is set, the rarely useful moves are
+   * scored -1 too.
+   * @param emptyMain the leftmost empty main pile or -1
+   * @param emptySuit the leftmost empty suit pile or -1
+   * @return the score; higher scores are tried first
+   */
+  private int score(Move m, int emptyMain, int emptySuit) {
+    if (m == Move.DRAW)    return 20;
+    if (m == Move.RECYCLE) return 10;
+
+    int from = m.getFrom(), to = m.getTo();
+    if (GameState.isFoundation(to)) {
+      if (GameState.isFoundation(from) || (state.isEmpty(to) && to != emptySuit))
+        return -1;
+      return 100 + (turnsCardUp(from, 1) ? 10 : 0);
+    }
+
+    if (state.isEmpty(to) && to != emptyMain)
+      return -1;
+    if (GameState.isFoundation(from))
+      return everyMove ? 1 : -1;
+    if (from == GameState.WASTE)
+      return 50;
+
+    int left = state.size(from) - m.getCount();
+    if (left == 0)
+      return state.isEmpty(to) ? -1 : 40;
+    if (turnsCardUp(from, m.getCount()))
+      return 60 + left;
+
+    // only moves part of a face-up run: mostly useful to free the card underneath
+    int freed = state.cardAt(from, left - 1);
+    for (int f = GameState.FOUNDATION; f < GameState.FOUNDATION + GameState.FOUNDATION_PILES; f++)
+      if (CardId.canStackOnFoundation(freed, state.topCard(f)))
+        return 30;
+
+    return everyMove ? 5 : -1;
+  }
+
+  /**
+   * @return whether taking count cards off pile from turns a face-down card up
+   */
+  private boolean turnsCardUp(int from, int count) {
+    int left = state.size(from) - count;
+    return GameState.isTableau(from) && left > 0 && left == state.faceDownCount(from);
+  }
+
+}
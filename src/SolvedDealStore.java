@@ -0,0 +1,460 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SolvedDealStore.java
+ * A store on disk of what the Solver found for each deal: whether it is winnable, the shortest
+ * win known and how long it took to decide, keyed by a 64-bit deal key: Deal.fingerprint, so
+ * a deal and its color-preserving suit relabelings, which play the same, share one entry (and
+ * one win: moves name piles, not cards). Looking a deal up reads a few entries of a
+ * memory-mapped index and, for its moves, one short read of the moves file, so it takes
+ * microseconds however big the store is, and the store is never read into the heap.
+ *
+ * The index is a run of segment files, each an open-addressing hash table of ENTRY_SIZE byte
+ * entries probed linearly. A new entry always goes in the newest segment; when that is half
+ * full the next segment is created with twice as many slots, up to MAX_SLOT_BITS (the most a
+ * single mapping holds), and at that size from then on. Entries are never moved, so the store
+ * grows by appending files, and a lookup probes the segments newest first. At the largest
+ * size a store of hundreds of millions of deals is a few dozen segments.
+ *
+ * VERSION 1 stores were keyed by deal number; a store of another version is not opened.
+ *
+ * Segment layout (big-endian): a HEADER_SIZE byte header (SEGMENT_MAGIC, VERSION, ENTRY_SIZE,
+ * the log2 of the number of slots, the number of entries), then the slots: key (8), the offset
+ * of the moves in the moves file or -1 (8), status + 1 with 0 for an empty slot (1),
+ * difficulty (1, see BatchSolver), solution length (2) and microseconds (4).
+ *
+ * The moves file is MOVES_MAGIC, VERSION and 2 reserved bytes, then each stored win as
+ * GameRecord tokens ending with END. It only ever grows: a shorter win found for a stored deal
+ * is appended and its entry pointed at it. The moves are written before the entry, but the two
+ * files reach the disk separately (see force), so after a crash an entry can point at moves
+ * that were lost; getMoves reports those as an IOException. A new segment is sized on disk
+ * before its header is written, and the header is forced before any entry goes in it; a last
+ * segment left without a header by a crash while it was being created is made again.
+ *
+ * Usage: java Handler solved store-directory seed... (prints each deal by fingerprint, solving
+ *        and storing it first if it is not stored)
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class SolvedDealStore implements Closeable {
+
+  public static final int SEGMENT_MAGIC = 0x534F4C53; // "SOLS"
+  public static final int MOVES_MAGIC   = 0x534F4C4D; // "SOLM"
+  public static final int VERSION       = 2;
+  public static final int HEADER_SIZE   = 32;
+  public static final int ENTRY_SIZE    = 24;
+
+  /**
+   * The log2 of the number of slots of the first segment and of the largest ones
+   */
+  public static final int FIRST_SLOT_BITS = 16, MAX_SLOT_BITS = 26;
+
+  private static final int MOVES_HEADER_SIZE = 8;
+
+  /**
+   * Where the fields of an entry are, from its start, and of the entry count in a header
+   */
+  private static final int KEY = 0, OFFSET = 8, STATUS = 16, DIFFICULTY = 17, LENGTH = 18, MICROS = 20;
+  private static final int COUNT = 12;
+
+  private final Path                directory;
+  private final List<Segment>       segments = new ArrayList<Segment>();
+  private final FileChannel         moves;
+  private long                      movesEnd;
+
+  /**
+   * Opens the store in directory, creating it if there is none
+   * @throws IOException if the store cannot be read or created
+   * @throws IllegalArgumentException if a file in it is not part of a store
+   */
+  public SolvedDealStore(Path directory) throws IOException {
+    this.directory = directory;
+    Files.createDirectories(directory);
+    moves = FileChannel.open(directory.resolve("moves"), StandardOpenOption.CREATE,
+                             StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      if (moves.size() == 0) {
+        ByteBuffer b = ByteBuffer.allocate(MOVES_HEADER_SIZE);
+        b.putInt(MOVES_MAGIC).putShort((short)VERSION).putShort((short)0).flip();
+        moves.write(b, 0);
+      }
+      ByteBuffer b = ByteBuffer.allocate(MOVES_HEADER_SIZE);
+      moves.read(b, 0);
+      if (b.getInt(0) != MOVES_MAGIC || b.getShort(4) != VERSION)
+        throw new IllegalArgumentException(directory + " is not a solved deal store");
+      movesEnd = moves.size();
+
+      for (int i = 0; Files.exists(segmentFile(i)); i++) {
+        Segment next = Segment.open(segmentFile(i));
+        if (next == null) {
+          // a crash while the segment was being created: only the newest can be left like this
+          if (Files.exists(segmentFile(i + 1)))
+            throw new IllegalArgumentException(segmentFile(i) + " is not a solved deal store segment");
+          Files.delete(segmentFile(i));
+          break;
+        }
+        segments.add(next);
+      }
+      if (segments.isEmpty())
+        segments.add(Segment.create(segmentFile(0), FIRST_SLOT_BITS));
+    } catch (IOException | RuntimeException e) {
+      moves.close();
+      throw e;
+    }
+  }
+
+  private Path segmentFile(int i) {
+    return directory.resolve(String.format("segment-%03d", i));
+  }
+
+  /**
+   * Looks a deal up
+   * @param key the deal's key
+   * @return what is stored for it, or null if nothing is
+   */
+  public synchronized Entry get(long key) {
+    for (int i = segments.size() - 1; i >= 0; i--) {
+      Segment s = segments.get(i);
+      int slot  = s.find(key);
+      if (s.isUsed(slot))
+        return s.entry(slot);
+    }
+    return null;
+  }
+
+  /**
+   * Stores the result of solving a deal, unless the deal is stored with a win at least as
+   * short. A result the solver gave up on never replaces one it did not.
+   * @param key the deal's key
+   * @param r the result
+   * @return whether the store changed
+   * @throws IOException if the moves cannot be written
+   */
+  public synchronized boolean put(long key, SolverResult r) throws IOException {
+    Segment s   = null;
+    int     slot = -1;
+    for (int i = segments.size() - 1; i >= 0 && s == null; i--) {
+      int found = segments.get(i).find(key);
+      if (segments.get(i).isUsed(found)) {
+        s    = segments.get(i);
+        slot = found;
+      }
+    }
+    if (s != null && !isBetter(r, s.entry(slot)))
+      return false;
+
+    long offset = r.isSolved() ? appendMoves(r.getMoves(), r.getSolutionLength()) : -1;
+    if (s == null) {
+      s = newest();
+      slot = s.find(key);
+      s.setCount(s.getCount() + 1);
+    }
+    s.put(slot, key, offset, r);
+    return true;
+  }
+
+  private static boolean isBetter(SolverResult r, Entry old) {
+    if (old.getStatus() == SolverResult.SOLVED)
+      return r.isSolved() && r.getSolutionLength() < old.getSolutionLength();
+    return r.getStatus() != SolverResult.GAVE_UP;
+  }
+
+  /**
+   * @return the segment to add an entry to, creating a new one if the newest is half full
+   */
+  private Segment newest() throws IOException {
+    Segment last = segments.get(segments.size() - 1);
+    if (last.getCount() < last.slots / 2)
+      return last;
+
+    int bits = Math.min(MAX_SLOT_BITS, Integer.numberOfTrailingZeros(last.slots) + 1);
+    Segment next = Segment.create(segmentFile(segments.size()), bits);
+    segments.add(next);
+    return next;
+  }
+
+  /**
+   * Appends moves[0..length) to the moves file
+   * @return the offset they were written at
+   */
+  private long appendMoves(Move[] m, int length) throws IOException {
+    byte[] b = new byte[length * GameRecord.MAX_TOKEN_BYTES + 1];
+    int n = 0;
+    for (int i = 0; i < length; i++)
+      n = GameRecord.putToken(b, n, GameRecord.token(m[i]));
+    b[n++] = GameRecord.END;
+
+    long offset = movesEnd;
+    ByteBuffer buf = ByteBuffer.wrap(b, 0, n);
+    for (long at = offset; buf.hasRemaining(); )
+      at += moves.write(buf, at);
+    movesEnd += n;
+    return offset;
+  }
+
+  /**
+   * Reads the stored win of a deal
+   * @param e what is stored for the deal
+   * @return its moves, or null if the deal is not stored as winnable
+   * @throws IOException if the moves cannot be read, or are not all there (after a crash)
+   */
+  public Move[] getMoves(Entry e) throws IOException {
+    if (e.getStatus() != SolverResult.SOLVED)
+      return null;
+    if (e.movesOffset < MOVES_HEADER_SIZE || e.movesOffset >= moves.size())
+      throw new IOException("no moves at " + e.movesOffset + " in " + directory);
+
+    ByteBuffer b = ByteBuffer.allocate(e.getSolutionLength() * GameRecord.MAX_TOKEN_BYTES + 1);
+    while (b.hasRemaining() && moves.read(b, e.movesOffset + b.position()) > 0) {
+    }
+    b.flip();
+
+    Move[] m = new Move[e.getSolutionLength()];
+    for (int i = 0; i < m.length; i++) {
+      int token = 0;
+      for (int shift = 0; ; shift += 7) {
+        if (!b.hasRemaining() || shift >= 7 * GameRecord.MAX_TOKEN_BYTES)
+          throw new IOException("moves cut short at " + e.movesOffset + " in " + directory);
+        int x = b.get();
+        token |= (x & 0x7F) << shift;
+        if (x >= 0)
+          break;
+      }
+      if ((m[i] = GameRecord.move(token)) == null)
+        throw new IOException("bad moves at " + e.movesOffset + " in " + directory);
+    }
+    return m;
+  }
+
+  /**
+   * @return the number of deals stored
+   */
+  public synchronized long size() {
+    long n = 0;
+    for (Segment s : segments)
+      n += s.getCount();
+    return n;
+  }
+
+  /**
+   * Forces every change to disk
+   */
+  public synchronized void force() throws IOException {
+    moves.force(false);
+    for (Segment s : segments)
+      s.map.force();
+  }
+
+  /**
+   * Forces every change to disk and closes the moves file. The segments stay mapped until
+   * they are collected.
+   */
+  public synchronized void close() throws IOException {
+    force();
+    moves.close();
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: solved store-directory seed...");
+      return;
+    }
+    try (SolvedDealStore store = new SolvedDealStore(Paths.get(args[0]))) {
+      Solver solver = new Solver();
+      for (int i = 1; i < args.length; i++) {
+        byte[] order = Deal.order(Long.parseLong(args[i]));
+        long   key   = Deal.fingerprint(order);
+        if (store.get(key) == null)
+          store.put(key, solver.solve(GameState.deal(order)));
+        print(store, key, System.out);
+      }
+    }
+  }
+
+  /**
+   * Prints what is stored for a deal
+   */
+  static void print(SolvedDealStore store, long key, PrintStream out) throws IOException {
+    Entry e = store.get(key);
+    if (e == null) {
+      out.printf("%d\tnot stored%n", key);
+      return;
+    }
+    String[] names = {"solved", "unsolvable", "gave up"};
+    out.printf("%d\t%s\t%d moves\t%d micros", key, names[e.getStatus()], e.getSolutionLength(),
+               e.getMicros());
+    Move[] m = store.getMoves(e);
+    if (m != null)
+      for (Move move : m)
+        out.print(" " + move);
+    out.println();
+  }
+
+  /**
+   * What is stored for one deal
+   */
+  public static final class Entry {
+
+    private final int  status;
+    private final int  difficulty;
+    private final int  solutionLength;
+    private final int  micros;
+    private final long movesOffset;
+
+    Entry(int status, int difficulty, int solutionLength, int micros, long movesOffset) {
+      this.status         = status;
+      this.difficulty     = difficulty;
+      this.solutionLength = solutionLength;
+      this.micros         = micros;
+      this.movesOffset    = movesOffset;
+    }
+
+    /**
+     * @return the solver's status: SolverResult.SOLVED, UNSOLVABLE or GAVE_UP
+     */
+    public int getStatus() {
+      return status;
+    }
+
+    /**
+     * @return the difficulty score (see BatchSolver)
+     */
+    public int getDifficulty() {
+      return difficulty;
+    }
+
+    /**
+     * @return the number of moves of the shortest win known, or 0
+     */
+    public int getSolutionLength() {
+      return solutionLength;
+    }
+
+    /**
+     * @return how long the solve that decided the deal took, in microseconds
+     */
+    public int getMicros() {
+      return micros;
+    }
+
+  }
+
+  /**
+   * One mapped segment file
+   */
+  private static final class Segment {
+
+    final MappedByteBuffer map;
+    final int              slots;
+
+    private Segment(MappedByteBuffer map, int slots) {
+      this.map   = map;
+      this.slots = slots;
+    }
+
+    /**
+     * Creates a segment file of 2^bits empty slots and maps it for entries. The file is sized
+     * and forced before its header is written, so a crash can leave it all zero but never with
+     * a header and the wrong size.
+     */
+    static Segment create(Path file, int bits) throws IOException {
+      try (FileChannel c = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                                            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        long size = HEADER_SIZE + ((long)ENTRY_SIZE << bits);
+        ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE);
+        h.putInt(SEGMENT_MAGIC).putShort((short)VERSION).putShort((short)ENTRY_SIZE).putInt(bits)
+         .putInt(0).flip();
+        c.write(ByteBuffer.allocate(1), size - 1);
+        c.force(true);
+        for (long at = 0; h.hasRemaining(); )
+          at += c.write(h, at);
+        c.force(true);
+        return new Segment(c.map(FileChannel.MapMode.READ_WRITE, 0, size), 1 << bits);
+      }
+    }
+
+    /**
+     * Maps a segment file
+     * @return the segment, or null if the file's header is missing or all zero (a crash while
+     *         it was being created)
+     */
+    static Segment open(Path file) throws IOException {
+      ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE);
+      try (FileChannel c = FileChannel.open(file, StandardOpenOption.READ)) {
+        while (h.hasRemaining() && c.read(h) > 0) {
+        }
+      }
+      if (h.hasRemaining() || Arrays.equals(h.array(), new byte[HEADER_SIZE]))
+        return null;
+      int bits = h.getInt(8);
+      if (h.getInt(0) != SEGMENT_MAGIC || h.getShort(4) != VERSION || h.getShort(6) != ENTRY_SIZE ||
+          bits < 1 || bits > MAX_SLOT_BITS || Files.size(file) != HEADER_SIZE + ((long)ENTRY_SIZE << bits))
+        throw new IllegalArgumentException(file + " is not a solved deal store segment");
+      try (FileChannel c = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        return new Segment(c.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + ((long)ENTRY_SIZE << bits)),
+                           1 << bits);
+      }
+    }
+
+    int getCount() {
+      return map.getInt(COUNT);
+    }
+
+    void setCount(int n) {
+      map.putInt(COUNT, n);
+    }
+
+    /**
+     * @return the slot holding key, or the empty slot it would go in
+     */
+    int find(long key) {
+      int mask = slots - 1;
+      for (int slot = (int)Zobrist.mix(key) & mask; ; slot = (slot + 1) & mask) {
+        int at = at(slot);
+        if (map.get(at + STATUS) == 0 || map.getLong(at + KEY) == key)
+          return slot;
+      }
+    }
+
+    boolean isUsed(int slot) {
+      return map.get(at(slot) + STATUS) != 0;
+    }
+
+    Entry entry(int slot) {
+      int at = at(slot);
+      return new Entry(map.get(at + STATUS) - 1, map.get(at + DIFFICULTY), map.getShort(at + LENGTH),
+                       map.getInt(at + MICROS), map.getLong(at + OFFSET));
+    }
+
+    /**
+     * Writes an entry, its status last so a reader of the file never sees half an entry
+     */
+    void put(int slot, long key, long offset, SolverResult r) {
+      int at = at(slot);
+      map.putLong(at + KEY, key).putLong(at + OFFSET, offset)
+         .put(at + DIFFICULTY, (byte)BatchSolver.difficulty(r))
+         .putShort(at + LENGTH, (short)r.getSolutionLength())
+         .putInt(at + MICROS, (int)Math.min(Integer.MAX_VALUE, r.getNanos() / 1000))
+         .put(at + STATUS, (byte)(r.getStatus() + 1));
+    }
+
+    private static int at(int slot) {
+      return HEADER_SIZE + slot * ENTRY_SIZE;
+    }
+
+  }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Solver.java
+ * Decides whether a dealt position can be won under the game's rules (draw three, unlimited
+ * passes through the deck) and, if it can, finds a winning sequence of moves.
+ *
+ * The search is an iterative-deepening depth-first search. Each pass allows twice as many
+ * moves as the last, and a branch is cut as soon as a lower bound on the moves still needed
+ * (every card not yet on a suit pile needs a move, and every card in the deck needs a third
+ * of a draw) no longer fits in the moves left. Moves are tried best-first: cards to the suit
+ * piles, then moves that turn up a face-down card, then cards from the deck pile, and so on.
+ *
+ * A TranspositionTable remembers, for each position searched, how many moves were left when
+ * it was searched. A position reached again with no more moves left is not searched again,
+ * and a position whose whole reachable game was searched without ever running out of moves is
+ * known to be lost. If a pass never runs out of moves, the deal is unsolvable.
+ *
+ * The search first leaves out moves that are rarely worth making: moving a card back off a
+ * suit pile, and moving part of a face-up run when the card it frees cannot go to a suit pile.
+ * This finds most wins many times faster. If that search finds no win, the deal is searched
+ * again with every move before it is called unsolvable.
+ *
+ * The search itself is in SearchWorker, which ParallelSolver runs on several threads at once.
+ * A Solver is not thread safe, but it may be reused for any number of deals.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class Solver {
+
+  /**
+   * The moves allowed in the first pass and the most allowed in any pass
+   */
+  public static final int FIRST_DEPTH = 128, MAX_DEPTH = 1024;
+
+  private final TranspositionTable table;
+  private final SearchWorker       worker;
+  private final long maxNodes;
+  private final long timeLimitNanos;
+
+  private SearchControl control;
+
+  /**
+   * Constructs a solver with a 2^20 entry table and no node or time limit
+   */
+  public Solver() {
+    this(20, Long.MAX_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * Constructs a solver
+   * @param tableBits the log2 of the number of transposition table entries
+   * @param maxNodes the most positions to search before giving up
+   * @param timeLimitMillis the most time to search before giving up
+   */
+  public Solver(int tableBits, long maxNodes, long timeLimitMillis) {
+    table          = new TranspositionTable(tableBits);
+    worker         = new SearchWorker(table);
+    this.maxNodes  = maxNodes;
+    timeLimitNanos = toNanos(timeLimitMillis);
+  }
+
+  /**
+   * Searches for a win from start
+   * @param start the position to solve; it is not changed
+   * @return the result of the search
+   */
+  public SolverResult solve(GameState start) {
+    control = new SearchControl(maxNodes, timeLimitNanos);
+    table.clear();
+
+    int status = deepen(start, false);
+    if (status == SolverResult.UNSOLVABLE) {
+      table.clear();
+      status = deepen(start, true);
+    }
+
+    Move[] solution = new Move[status == SolverResult.SOLVED ? worker.getSolutionLength() : 0];
+    System.arraycopy(worker.getPath(), 0, solution, 0, solution.length);
+
+    return new SolverResult(status, solution, control.getNodes(), control.getElapsedNanos(),
+                            table.sizeInBytes());
+  }
+
+  /**
+   * Runs passes with more and more moves allowed until one decides the deal
+   * @param everyMove whether to try the rarely useful moves too
+   * @return SOLVED, UNSOLVABLE or GAVE_UP
+   */
+  private int deepen(GameState start, boolean everyMove) {
+    for (int limit = FIRST_DEPTH; limit <= MAX_DEPTH && !control.isStopped(); limit *= 2) {
+      worker.reset(start, control, everyMove);
+      boolean won = worker.search(0, limit);
+      worker.flush();
+      if (won)
+        return SolverResult.SOLVED;
+      if (!control.isStopped() && !worker.hadCutoff())
+        return SolverResult.UNSOLVABLE;
+    }
+
+    return SolverResult.GAVE_UP;
+  }
+
+  /**
+   * @return timeLimitMillis in nanoseconds, or Long.MAX_VALUE if that would overflow
+   */
+  static long toNanos(long timeLimitMillis) {
+    return (timeLimitMillis >= Long.MAX_VALUE / 1000000) ? Long.MAX_VALUE : timeLimitMillis * 1000000;
+  }
+
+}
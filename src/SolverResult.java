@@ -0,0 +1,113 @@
+/**
+ * SolverResult.java
+ * What a Solver found out about a deal, and what it cost to find out.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class SolverResult {
+
+  /**
+   * The deal can be won; getMoves is a winning sequence of moves
+   */
+  public static final int SOLVED = 0;
+
+  /**
+   * Every reachable position was searched and none of them is won
+   */
+  public static final int UNSOLVABLE = 1;
+
+  /**
+   * The search gave up before deciding, because it hit its node or time limit
+   */
+  public static final int GAVE_UP = 2;
+
+  private final int    status;
+  private final Move[] moves;
+  private final long   nodes;
+  private final long   nanos;
+  private final long   tableBytes;
+
+  /**
+   * Constructs a result
+   * @param status SOLVED, UNSOLVABLE or GAVE_UP
+   * @param moves the winning moves, or an empty array if the deal was not solved
+   * @param nodes the number of positions searched
+   * @param nanos the time the search took
+   * @param tableBytes the memory taken by the transposition table
+   */
+  public SolverResult(int status, Move[] moves, long nodes, long nanos, long tableBytes) {
+    this.status     = status;
+    this.moves      = moves;
+    this.nodes      = nodes;
+    this.nanos      = nanos;
+    this.tableBytes = tableBytes;
+  }
+
+  /**
+   * @return SOLVED, UNSOLVABLE or GAVE_UP
+   */
+  public int getStatus() {
+    return status;
+  }
+
+  /**
+   * @return whether the deal was shown to be winnable
+   */
+  public boolean isSolved() {
+    return status == SOLVED;
+  }
+
+  /**
+   * @return a copy of the winning moves, or an empty array if the deal was not solved
+   */
+  public Move[] getMoves() {
+    return moves.clone();
+  }
+
+  /**
+   * @return the number of moves in the solution, or 0 if the deal was not solved
+   */
+  public int getSolutionLength() {
+    return moves.length;
+  }
+
+  /**
+   * @return the number of positions searched
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * @return the time the search took, in nanoseconds
+   */
+  public long getNanos() {
+    return nanos;
+  }
+
+  /**
+   * @return the number of positions searched per second
+   */
+  public double getNodesPerSecond() {
+    return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+  }
+
+  /**
+   * @return the memory taken by the transposition table, in bytes
+   */
+  public long getTableBytes() {
+    return tableBytes;
+  }
+
+  /**
+   * @return a one-line summary of the result
+   */
+  public String toString() {
+    String[] names = {"solved", "unsolvable", "gave up"};
+    return String.format("%s in %d moves, %d nodes, %.1f ms, %.0f nodes/s, table %d KB",
+                         names[status], moves.length, nodes, nanos / 1e6, getNodesPerSecond(),
+                         tableBytes / 1024);
+  }
+
+}
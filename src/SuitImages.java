@@ -0,0 +1,78 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.imageio.ImageIO;
+
+/**
+ * SuitImages.java
+ * A process-wide registry of the suit images. Each image is decoded the first time a card of
+ * that suit asks for it and is then shared by every card of every deck, so building a deck no
+ * longer costs 52 PNG decodes.
+ *
+ * The images handed out are shared and must be treated as read-only: never draw onto them.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class SuitImages {
+
+  /**
+   * Image file names, in the same order as Card.SUITS
+   */
+  private static final String[] FILES = {"spade.png", "heart.png", "diamond.png", "club.png"};
+
+  /**
+   * The decoded images, indexed like Card.SUITS. A slot stays null until it is first requested.
+   */
+  private static final AtomicReferenceArray<BufferedImage> images =
+      new AtomicReferenceArray<BufferedImage>(FILES.length);
+
+  private SuitImages() {
+  }
+
+  /**
+   * Returns the image for the suit at index suit of Card.SUITS, loading it on first use
+   * @param suit the suit index
+   * @return the shared suit image or null if the suit is invalid or the image could not be read
+   */
+  public static BufferedImage get(int suit) {
+    if (suit < 0 || suit >= FILES.length)
+      return null;
+
+    BufferedImage img = images.get(suit);
+    if (img == null) {
+      synchronized (images) {
+        img = images.get(suit);
+        if (img == null) {
+          img = load(FILES[suit]);
+          images.set(suit, img);
+        }
+      }
+    }
+
+    return img;
+  }
+
+  /**
+   * Reads an image from the classpath (/images/name), falling back to the images directory
+   * in the working directory when it is not packaged with the classes
+   * @param name the file name of the image
+   * @return the image or null if it could not be read
+   */
+  private static BufferedImage load(String name) {
+    try {
+      URL url = SuitImages.class.getResource("/images/" + name);
+      if (url != null)
+        return ImageIO.read(url);
+
+      return ImageIO.read(new File("images", name));
+    } catch (IOException ioex) {
+      System.out.println("Error reading image.");
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+/**
+ * TranspositionTable.java
+ * A fixed-size hash table from position hashes (GameState.getHash) to a value the solvers
+ * store about the position. The table never grows: each hash can only live in one of two
+ * neighbouring slots, and when both are taken the slot holding the smaller value is replaced,
+ * since the solvers store bigger values for positions that took more work to search.
+ *
+ * The table may be shared by any number of threads without locking. Each slot stores the
+ * value next to the hash XORed with the value; a reader only accepts a slot whose two halves
+ * XOR back to the hash it asked for, so a slot caught half-written by another thread reads as
+ * absent instead of returning another position's value. Racing writes can lose an entry,
+ * which only costs the solvers some repeated work.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public class TranspositionTable {
+
+  /**
+   * What get returns for a hash that is not in the table
+   */
+  public static final long ABSENT = -1;
+
+  /**
+   * Slot i is at entries[2 * i] (hash ^ value) and entries[2 * i + 1] (value)
+   */
+  private final long[] entries;
+  private final int    mask;
+
+  /**
+   * Constructs a table of 2^bits entries
+   * @param bits the log2 of the number of entries, from 1 to 29
+   */
+  public TranspositionTable(int bits) {
+    if (bits < 1 || bits > 29)
+      throw new IllegalArgumentException("table bits must be from 1 to 29, got " + bits);
+
+    entries = new long[2 << bits];
+    mask    = (1 << bits) - 1;
+  }
+
+  /**
+   * Returns the value stored for hash
+   * @param hash the position hash
+   * @return the value or ABSENT
+   */
+  public long get(long hash) {
+    int i = slot(hash);
+    long value = entries[2 * i + 1];
+    if ((entries[2 * i] ^ value) == hash && value != 0)
+      return value;
+    value = entries[2 * (i ^ 1) + 1];
+    if ((entries[2 * (i ^ 1)] ^ value) == hash && value != 0)
+      return value;
+
+    return ABSENT;
+  }
+
+  /**
+   * Stores value for hash, replacing any older value for the same hash
+   * @param hash the position hash
+   * @param value the value, which must be greater than 0
+   */
+  public void put(long hash, long value) {
+    int i = slot(hash);
+    int j = i ^ 1;
+    long vi = entries[2 * i + 1], vj = entries[2 * j + 1];
+    boolean inI = (entries[2 * i] ^ vi) == hash && vi != 0;
+    boolean inJ = (entries[2 * j] ^ vj) == hash && vj != 0;
+    if (!inI && (inJ || vj < vi))
+      i = j;
+    entries[2 * i + 1] = value;
+    entries[2 * i]     = hash ^ value;
+  }
+
+  /**
+   * Removes the value stored for hash, if there is one
+   * @param hash the position hash
+   */
+  public void remove(long hash) {
+    int i = slot(hash);
+    for (int k = 0; k < 2; k++, i ^= 1) {
+      if ((entries[2 * i] ^ entries[2 * i + 1]) == hash) {
+        entries[2 * i + 1] = 0;
+        entries[2 * i]     = hash;
+      }
+    }
+  }
+
+  /**
+   * Removes every entry. This must not race with get or put.
+   */
+  public void clear() {
+    Arrays.fill(entries, 0L);
+  }
+
+  /**
+   * @return the number of entries the table can hold
+   */
+  public int capacity() {
+    return entries.length / 2;
+  }
+
+  /**
+   * @return the memory taken by the table, in bytes
+   */
+  public long sizeInBytes() {
+    return entries.length * 8L;
+  }
+
+  private int slot(long hash) {
+    return (int)(hash ^ (hash >>> 32)) & mask;
+  }
+
+}
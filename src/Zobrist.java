@@ -0,0 +1,103 @@
+/**
+ * Zobrist.java
+ * The random keys behind GameState.getHash. A position's hash is the XOR of one key for every
+ * card in it, chosen by the card and where it lies, and one key for the number of face-down
+ * cards in each main pile:
+ *
+ *   - tableau, stock and waste cards are keyed by card, pile and index in the pile
+ *   - foundation cards are keyed by card only, since a card's index on a suit pile is fixed by
+ *     its face and it does not matter which suit pile a suit is built on
+ *   - face-down cards are always at the bottom of a main pile, so the pile's face-down count
+ *     is all the hash needs to know about which cards face which way
+ *
+ * Because every key is XORed in or out as a card moves, GameState keeps the hash up to date in
+ * time proportional to the cards a move touches (at most a 24-card recycle) instead of
+ * rehashing the position. The keys come from a fixed seed, so a position has the same hash in
+ * every run.
+ *
+ * @author  Jake Wilson
+ * @version Oct 18, 2026
+ */
+public final class Zobrist {
+
+  private static final long SEED = 0x5DEECE66DL;
+
+  /**
+   * Where each pile's keys start in CARD_KEYS, in slots of CardId.COUNT keys
+   */
+  private static final int[] SLOT = new int[GameState.PILES];
+
+  private static final long[] CARD_KEYS;
+
+  /**
+   * FACE_DOWN_KEYS[t * TABLEAU_PILES + n] is the key for n face-down cards in main pile t.
+   * The keys for 0 are 0, so an empty position hashes to 0.
+   */
+  private static final long[] FACE_DOWN_KEYS = new long[GameState.TABLEAU_PILES * GameState.TABLEAU_PILES];
+
+  static {
+    int slots = 0;
+    for (int p = 0; p < GameState.PILES; p++) {
+      if (GameState.isFoundation(p) && p != GameState.FOUNDATION) {
+        SLOT[p] = SLOT[GameState.FOUNDATION];
+      } else {
+        SLOT[p] = slots;
+        slots  += GameState.capacity(p);
+      }
+    }
+
+    long state = SEED;
+    CARD_KEYS = new long[slots * CardId.COUNT];
+    for (int i = 0; i < CARD_KEYS.length; i++)
+      CARD_KEYS[i] = mix(state += 0x9E3779B97F4A7C15L);
+    for (int t = 0; t < GameState.TABLEAU_PILES; t++)
+      for (int n = 1; n < GameState.TABLEAU_PILES; n++)
+        FACE_DOWN_KEYS[t * GameState.TABLEAU_PILES + n] = mix(state += 0x9E3779B97F4A7C15L);
+  }
+
+  private Zobrist() {
+  }
+
+  /**
+   * @return the key for card c at index i of pile p
+   */
+  public static long cardKey(int p, int i, int c) {
+    return CARD_KEYS[(SLOT[p] + i) * CardId.COUNT + c];
+  }
+
+  /**
+   * @return the key for n face-down cards in tableau pile p
+   */
+  public static long faceDownKey(int p, int n) {
+    return FACE_DOWN_KEYS[(p - GameState.TABLEAU) * GameState.TABLEAU_PILES + n];
+  }
+
+  /**
+   * Hashes a position from scratch. This always equals s.getHash(); it is meant for checking
+   * the incremental hash and for positions built some other way.
+   * @param s the position to hash
+   * @return the hash of s
+   */
+  public static long hash(GameState s) {
+    long h = 0;
+    for (int p = 0; p < GameState.PILES; p++) {
+      for (int i = 0; i < s.size(p); i++)
+        h ^= cardKey(p, i, s.cardAt(p, i));
+      if (GameState.isTableau(p))
+        h ^= faceDownKey(p, s.faceDownCount(p));
+    }
+
+    return h;
+  }
+
+  /**
+   * The SplitMix64 finalizer, which also spreads the keys of a SolvedDealStore and
+   * hashes the orders behind Deal.fingerprint
+   */
+  static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+}